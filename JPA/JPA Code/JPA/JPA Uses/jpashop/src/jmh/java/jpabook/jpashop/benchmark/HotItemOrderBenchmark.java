@@ -0,0 +1,94 @@
+package jpabook.jpashop.benchmark;
+
+import jpabook.jpashop.JpashopApplication;
+import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.OrderFacade;
+import jpabook.jpashop.service.StockReservationBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인기 상품 1개에 8개 스레드가 동시 주문할 때 주문 처리량 (재고 차감 방식별)
+ *  - ATOMIC : 조건부 UPDATE (상품 행 락을 커밋까지 잡으므로 주문이 한 줄로 섬)
+ *  - OPTIMISTIC : 변경 감지 + @Version (충돌 시 OrderFacade가 재시도)
+ *  - BUFFER : 메모리 stripe에서 예약 + 원장 INSERT, 상품 행은 주기적으로 한 번에 반영 (StockReservationBuffer)
+ *  - 초과 판매 여부는 HotItemOrderConcurrencyTest, StockReservationBufferTest에서 확인
+ *
+ * 재고가 떨어지지 않도록 iteration마다 주문을 지우고 재고를 STOCK으로 되돌림
+ *
+ * 실행 : gradle jmh (결과는 build/results/jmh/results.json)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class HotItemOrderBenchmark {
+
+    private static final Long MEMBER_ID = 1L; // InitDb : userA
+    private static final Long ITEM_ID = 1L; // InitDb : JPA BOOK1
+    private static final int STOCK = 100_000_000;
+
+    @Param({"ATOMIC", "OPTIMISTIC", "BUFFER"})
+    private String stockUpdate;
+
+    private ConfigurableApplicationContext context;
+    private OrderFacade orderFacade;
+    private ItemService itemService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean buffer = stockUpdate.equals("BUFFER");
+
+        // 💡 명령행 인자(--)로 넘겨야 application.properties(SQL 로그 debug/trace)보다 우선함 (properties(...)는 기본값이라 가장 낮음)
+        context = new SpringApplicationBuilder(JpashopApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:jmh-hot-item-" + stockUpdate + ";DB_CLOSE_ON_EXIT=FALSE",
+                        "--jpashop.order.stock-update=" + (buffer ? "ATOMIC" : stockUpdate),
+                        "--jpashop.order.optimistic-retry=100000",
+                        "--jpashop.stock.buffer.hot-items=" + (buffer ? ITEM_ID : ""),
+                        "--decorator.datasource.p6spy.enable-logging=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=OFF",
+                        "--logging.level.org.hibernate.orm.jdbc.bind=OFF",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=OFF",
+                        "--logging.level.org.hibernate.resource.transaction=OFF",
+                        "--logging.level.org.hibernate.orm.jdbc.batch=OFF", // OPTIMISTIC 충돌(재시도 대상) 로그
+                        "--spring.devtools.restart.enabled=false");
+
+        orderFacade = context.getBean(OrderFacade.class);
+        itemService = context.getBean(ItemService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    /**
+     * 주문 삭제 + 재고 되돌림 (인기 상품은 ItemService로 수정해야 버퍼에도 반영)
+     */
+    @Setup(Level.Iteration)
+    public void resetStock() {
+        context.getBean(StockReservationBuffer.class).flush();
+
+        jdbcTemplate.update("DELETE FROM order_summary");
+        jdbcTemplate.update("DELETE FROM order_item");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM delivery");
+
+        itemService.updateItem(ITEM_ID, "JPA BOOK1", 10000, STOCK);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long order() {
+        return orderFacade.order(MEMBER_ID, ITEM_ID, 1);
+    }
+}
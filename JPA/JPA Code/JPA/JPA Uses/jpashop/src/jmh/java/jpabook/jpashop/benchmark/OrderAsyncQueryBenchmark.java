@@ -0,0 +1,78 @@
+package jpabook.jpashop.benchmark;
+
+import jpabook.jpashop.JpashopApplication;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.service.query.OrderAsyncQueryService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 조회 응답 시간 : V5 (주문 -> 주문상품 IN, 순서대로) vs V5.1 (범위 조회 후 주문 / 배송지 / 주문상품 동시 조회)
+ *  - 둘 다 주문 전체(orders건)를 조회 (V5.1은 limit = orders인 한 페이지)
+ *  - V5.1은 쿼리 3개가 각각 커넥션을 잡으므로, 코어 / 커넥션이 부족하면 동시 실행 효과가 줄어듦
+ *
+ * 실행 : gradle jmh (결과는 build/results/jmh/results.json)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderAsyncQueryBenchmark {
+
+    @Param({"1000", "10000"})
+    private int orders;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private OrderQueryRepository orderQueryRepository;
+    private OrderAsyncQueryService orderAsyncQueryService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 💡 properties(...)로 넘기면 application.properties에 덮이므로 명령행 인자로 전달
+        context = new SpringApplicationBuilder(JpashopApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:jmh-async-" + orders + ";DB_CLOSE_ON_EXIT=FALSE",
+                        "--jpashop.init.bulk.enabled=true",
+                        "--jpashop.init.bulk.members=" + orders / 2,
+                        "--jpashop.init.bulk.items=100",
+                        "--jpashop.init.bulk.orders-per-member=2",
+                        "--jpashop.init.bulk.items-per-order=2",
+                        "--jpashop.query.async.threads=3", // 쿼리 3개 동시 실행
+                        "--decorator.datasource.p6spy.enable-logging=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=OFF",
+                        "--logging.level.org.hibernate.orm.jdbc.bind=OFF",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=OFF",
+                        "--logging.level.org.hibernate.resource.transaction=OFF",
+                        "--spring.devtools.restart.enabled=false");
+
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+        orderQueryRepository = context.getBean(OrderQueryRepository.class);
+        orderAsyncQueryService = context.getBean(OrderAsyncQueryService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<OrderQueryDto> v5_findAllByDto_optimization() {
+        return transactionTemplate.execute(status -> orderQueryRepository.findAllByDto_optimization());
+    }
+
+    @Benchmark
+    public List<OrderQueryDto> v5_1_findAllByDto_async() {
+        return orderAsyncQueryService.findAllByDto_async(null, orders).join();
+    }
+}
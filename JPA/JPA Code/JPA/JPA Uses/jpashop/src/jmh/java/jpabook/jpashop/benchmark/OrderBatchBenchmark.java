@@ -0,0 +1,95 @@
+package jpabook.jpashop.benchmark;
+
+import jpabook.jpashop.JpashopApplication;
+import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.OrderCommand;
+import jpabook.jpashop.service.OrderFacade;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 N건 처리 시간 : 단건 주문 N번 (order) vs 대량 주문 1번 (orderAll)
+ *  - order : 주문마다 트랜잭션, 회원 / 상품 조회, 재고 UPDATE, INSERT 3번
+ *  - orderAll : 트랜잭션 1번, 회원 / 상품 IN 조회, INSERT는 batch_size(100) 단위 묶음, 재고 UPDATE는 상품당 1번
+ *  - Statement 수, DB 왕복 횟수는 OrderBatchTest에서 확인
+ *
+ * 주문 테이블이 계속 커지지 않도록 iteration마다 주문을 지우고 재고를 STOCK으로 되돌림
+ *
+ * 실행 : gradle jmh (결과는 build/results/jmh/results.json)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderBatchBenchmark {
+
+    private static final Long MEMBER_ID = 1L; // InitDb : userA
+    private static final Long ITEM_ID = 1L; // InitDb : JPA BOOK1
+    private static final int STOCK = 100_000_000;
+
+    @Param({"10", "100", "1000"})
+    private int orders;
+
+    private ConfigurableApplicationContext context;
+    private OrderFacade orderFacade;
+    private ItemService itemService;
+    private JdbcTemplate jdbcTemplate;
+    private List<OrderCommand> commands;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 💡 properties(...)는 application.properties보다 우선순위가 낮으므로 명령행 인자로 전달
+        context = new SpringApplicationBuilder(JpashopApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:jmh-batch-" + orders + ";DB_CLOSE_ON_EXIT=FALSE",
+                        "--decorator.datasource.p6spy.enable-logging=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=OFF",
+                        "--logging.level.org.hibernate.orm.jdbc.bind=OFF",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=OFF",
+                        "--logging.level.org.hibernate.resource.transaction=OFF",
+                        "--spring.devtools.restart.enabled=false");
+
+        orderFacade = context.getBean(OrderFacade.class);
+        itemService = context.getBean(ItemService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        commands = new ArrayList<>(Collections.nCopies(orders, new OrderCommand(MEMBER_ID, ITEM_ID, 1)));
+    }
+
+    @Setup(Level.Iteration)
+    public void resetOrders() {
+        jdbcTemplate.update("DELETE FROM order_summary");
+        jdbcTemplate.update("DELETE FROM order_item");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM delivery");
+
+        itemService.updateItem(ITEM_ID, "JPA BOOK1", 10000, STOCK);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Long> single_order() {
+        List<Long> orderIds = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            orderIds.add(orderFacade.order(MEMBER_ID, ITEM_ID, 1));
+        }
+        return orderIds;
+    }
+
+    @Benchmark
+    public List<Long> batch_orderAll() {
+        return orderFacade.orderAll(commands);
+    }
+}
@@ -0,0 +1,163 @@
+package jpabook.jpashop.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.JpashopApplication;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.monitor.QueryCountScope;
+import jpabook.jpashop.monitor.QueryCounter;
+import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.service.query.OrderDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 주문 조회 전략 V1 ~ V6 비교 (OrderApiController)
+ *  - 데이터 크기(orders)마다 별도의 메모리 DB에 BulkDataGenerator로 주문 생성 (회원당 주문 2건, 주문당 주문상품 2개)
+ *  - 엔티티 조회는 같은 트랜잭션 안에서 DTO 변환까지 (지연 로딩 포함)
+ *  - batchFetchSize : hibernate.default_batch_fetch_size (1이면 사용 안 함 -> 지연 로딩 1 + N)
+ *
+ * 결과
+ *  - 처리량 : ops/s
+ *  - 할당량 : gc.alloc.rate.norm (B/op, -prof gc)
+ *  - 쿼리 수 : queries (queries/s, ops/s로 나누면 op당 쿼리 수)
+ *  - 💡 V2 API(findAllByString)는 검색 최대 건수(1000건)까지만 조회하므로, 같은 지연 로딩을 제한 없는 쿼리로 측정 (모든 전략이 orders건 전체)
+ *  - 💡 2차 캐시는 끔 (반복 실행 중 캐시에서 읽은 엔티티는 쿼리 수, 처리량에 포함되지 않음)
+ *
+ * 실행 : gradle jmh (결과는 build/results/jmh/results.json)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderFetchStrategyBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int orders;
+
+    @Param({"1", "1000"})
+    private int batchFetchSize;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager em;
+    private TransactionTemplate transactionTemplate;
+    private QueryCounter queryCounter;
+    private OrderRepository orderRepository;
+    private OrderQueryRepository orderQueryRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 💡 명령행 인자로 전달 (properties(...)로 넘기면 application.properties의 batch_fetch_size, 2차 캐시 설정에 덮임)
+        context = new SpringApplicationBuilder(JpashopApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:jmh-" + orders + "-" + batchFetchSize + ";DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.properties.hibernate.default_batch_fetch_size=" + batchFetchSize,
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false", // 2차 캐시 적중 없이 조회 전략만 비교
+                        "--jpashop.init.bulk.enabled=true",
+                        "--jpashop.init.bulk.members=" + orders / 2,
+                        "--jpashop.init.bulk.items=100",
+                        "--jpashop.init.bulk.orders-per-member=2",
+                        "--jpashop.init.bulk.items-per-order=2",
+                        "--decorator.datasource.p6spy.enable-logging=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=OFF",
+                        "--logging.level.org.hibernate.orm.jdbc.bind=OFF",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=OFF",
+                        "--logging.level.org.hibernate.resource.transaction=OFF",
+                        "--spring.devtools.restart.enabled=false");
+
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+        em = context.getBean(EntityManager.class);
+        queryCounter = context.getBean(QueryCounter.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        orderQueryRepository = context.getBean(OrderQueryRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * op마다 실행된 쿼리 수 (AuxCounters : 처리량과 같은 단위로 출력)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class QueryCounts {
+        public long queries;
+    }
+
+    /**
+     * V2 : 엔티티 조회 + 지연 로딩 (회원, 배송, 주문상품, 상품)
+     *  - findAllByString은 1000건까지만 조회하므로, 검색 조건 없는 같은 루트 쿼리를 제한 없이 실행
+     */
+    @Benchmark
+    public List<OrderDto> v2_findAll_lazy(QueryCounts counts) {
+        return measure(counts, () -> em.createQuery("SELECT o FROM Order o", Order.class).getResultList().stream()
+                .map(OrderDto::new)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * V3 : 컬렉션 Fetch Join (1 Query, 주문 x 주문상품 행)
+     */
+    @Benchmark
+    public List<OrderDto> v3_findAllWithItem(QueryCounts counts) {
+        return measure(counts, () -> orderRepository.findAllWithItem().stream()
+                .map(OrderDto::new)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * V3.1 : xToOne만 Fetch Join + 컬렉션은 Batch Fetch Size
+     */
+    @Benchmark
+    public List<OrderDto> v3_1_findAllWithMemberDelivery_batchFetch(QueryCounts counts) {
+        return measure(counts, () -> orderRepository.findAllWithMemberDelivery().stream()
+                .map(OrderDto::new)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * V4 : DTO 직접 조회 (1 + N)
+     */
+    @Benchmark
+    public List<OrderQueryDto> v4_findOrderQueryDtos(QueryCounts counts) {
+        return measure(counts, orderQueryRepository::findOrderQueryDtos);
+    }
+
+    /**
+     * V5 : DTO 직접 조회 + 주문상품 IN (1 + 1)
+     */
+    @Benchmark
+    public List<OrderQueryDto> v5_findAllByDto_optimization(QueryCounts counts) {
+        return measure(counts, orderQueryRepository::findAllByDto_optimization);
+    }
+
+    /**
+     * V6 : 플랫 DTO 1 Query + 애플리케이션에서 주문 단위로 접기
+     */
+    @Benchmark
+    public List<OrderQueryDto> v6_findAllByDto_flat(QueryCounts counts) {
+        return measure(counts, () -> orderQueryRepository.findAllByDto_flat(0, Integer.MAX_VALUE));
+    }
+
+    private <T> T measure(QueryCounts counts, Supplier<T> query) {
+        try (QueryCountScope scope = queryCounter.start()) {
+            T result = transactionTemplate.execute(status -> query.get());
+            counts.queries += scope.getCount();
+            return result; // 반환값은 JMH가 Blackhole로 소비
+        }
+    }
+}
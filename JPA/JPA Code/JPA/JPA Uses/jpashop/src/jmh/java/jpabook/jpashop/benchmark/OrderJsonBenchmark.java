@@ -0,0 +1,96 @@
+package jpabook.jpashop.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.JpashopApplication;
+import jpabook.jpashop.repository.order.query.OrderFlatJsonWriter;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 목록 JSON 응답 만들기 : V6 (플랫 DTO -> OrderQueryDto -> Jackson) vs V7 (JDBC 행 -> JsonGenerator)
+ *  - 조회 + 직렬화까지 측정, 응답은 버림 (OutputStream.nullOutputStream, 직렬화 후 닫히므로 매번 생성)
+ *  - 할당량은 gc.alloc.rate.norm (B/op, -prof gc)
+ *
+ * 실행 : gradle jmh (결과는 build/results/jmh/results.json)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderJsonBenchmark {
+
+    @Param({"1000", "10000"})
+    private int orders;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private ObjectMapper objectMapper;
+    private OrderQueryRepository orderQueryRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 💡 명령행 인자로 전달 (properties(...)는 application.properties보다 우선순위가 낮음)
+        context = new SpringApplicationBuilder(JpashopApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:jmh-json-" + orders + ";DB_CLOSE_ON_EXIT=FALSE",
+                        "--jpashop.init.bulk.enabled=true",
+                        "--jpashop.init.bulk.members=" + orders / 2,
+                        "--jpashop.init.bulk.items=100",
+                        "--jpashop.init.bulk.orders-per-member=2",
+                        "--jpashop.init.bulk.items-per-order=2",
+                        "--decorator.datasource.p6spy.enable-logging=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=OFF",
+                        "--logging.level.org.hibernate.orm.jdbc.bind=OFF",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=OFF",
+                        "--logging.level.org.hibernate.resource.transaction=OFF",
+                        "--spring.devtools.restart.enabled=false");
+
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+        objectMapper = context.getBean(ObjectMapper.class);
+        orderQueryRepository = context.getBean(OrderQueryRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void v6_flatDto_jackson() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                objectMapper.writeValue(OutputStream.nullOutputStream(), orderQueryRepository.findAllByDto_flat(0, Integer.MAX_VALUE));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Benchmark
+    public void v7_flatRows_jsonGenerator() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+                OrderFlatJsonWriter writer = new OrderFlatJsonWriter(generator);
+
+                writer.start();
+                orderQueryRepository.streamAllByFlatRows(writer);
+                writer.finish();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,110 @@
+package jpabook.jpashop.benchmark;
+
+import jpabook.jpashop.JpashopApplication;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.OrderSearch;
+import jpabook.jpashop.repository.OrderSearchShape;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 동적 검색 3가지 방식 (문자열 JPQL / Criteria / Querydsl) 처리량 비교 (OrderRepository)
+ *  - 검색 조건 모양 4가지를 op마다 돌아가며 8개 스레드에서 검색
+ *  - InitDb 데이터(주문 2건)만 사용 -> 조회보다 쿼리를 만드는 비용의 차이가 잘 드러남
+ *  - 쿼리 계획 캐시 적중 여부는 OrderSearchStyleTest에서 확인
+ *
+ * 실행 : gradle jmh (결과는 build/results/jmh/results.json)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class OrderSearchStyleBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private OrderRepository orderRepository;
+    private List<OrderSearch> searches;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 💡 properties(...)는 기본값이라 application.properties(tcp DB, SQL 로그)에 덮이므로 명령행 인자로 전달
+        context = new SpringApplicationBuilder(JpashopApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:jmh-search;DB_CLOSE_ON_EXIT=FALSE",
+                        "--decorator.datasource.p6spy.enable-logging=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=OFF",
+                        "--logging.level.org.hibernate.orm.jdbc.bind=OFF",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=OFF",
+                        "--logging.level.org.hibernate.resource.transaction=OFF",
+                        "--spring.devtools.restart.enabled=false");
+
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+        orderRepository = context.getBean(OrderRepository.class);
+
+        searches = new ArrayList<>();
+        for (OrderSearchShape shape : OrderSearchShape.values()) {
+            if(shape.usesMemberIds()) {
+                continue; // 회원 이름 인덱스 사용 여부는 검색 시 결정
+            }
+
+            OrderSearch orderSearch = new OrderSearch();
+            if(shape.hasStatus()) {
+                orderSearch.setOrderStatus(OrderStatus.ORDER);
+            }
+            if(shape.hasName()) {
+                orderSearch.setMemberName("userA");
+            }
+            searches.add(orderSearch);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 스레드마다 검색 조건 모양을 돌아가며 선택
+     */
+    @State(Scope.Thread)
+    public static class SearchCursor {
+        private int next;
+    }
+
+    @Benchmark
+    public List<Order> jpql_findAllByString(SearchCursor cursor) {
+        return search(cursor, orderRepository::findAllByString);
+    }
+
+    @Benchmark
+    public List<Order> criteria_findAllByCriteria(SearchCursor cursor) {
+        return search(cursor, orderRepository::findAllByCriteria);
+    }
+
+    @Benchmark
+    public List<Order> querydsl_findAll(SearchCursor cursor) {
+        return search(cursor, orderRepository::findAll);
+    }
+
+    private List<Order> search(SearchCursor cursor, Function<OrderSearch, List<Order>> search) {
+        OrderSearch orderSearch = searches.get(cursor.next);
+        cursor.next = (cursor.next + 1) % searches.size();
+
+        return transactionTemplate.execute(status -> search.apply(orderSearch));
+    }
+}
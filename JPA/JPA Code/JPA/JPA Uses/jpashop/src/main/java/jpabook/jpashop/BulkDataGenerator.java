@@ -0,0 +1,313 @@
+package jpabook.jpashop;
+
+import com.github.gavlyukovskiy.boot.jdbc.decorator.DecoratedDataSource;
+import jpabook.jpashop.repository.order.summary.OrderSummaryProjector;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 대량 데이터 생성 (InitDb, jpashop.init.bulk.enabled=true)
+ *  - 회원 members명, 상품 items개, 회원마다 주문 orders-per-member건, 주문마다 주문상품 items-per-order개
+ *  - 엔티티 대신 JDBC Batch INSERT로 직접 저장 (영속성 컨텍스트, 엔티티 리스너, p6spy 로그를 거치지 않음)
+ *  - 회원을 partitions개 구간으로 나누어 구간마다 별도 스레드 / 커넥션에서 동시에 저장, batch-size 주문마다 커밋
+ *
+ * ID 할당
+ *  - 테이블마다 시퀀스를 한 번 호출해서 그 값 이후의 ID를 직접 계산해서 사용 (구간끼리 겹치지 않음)
+ *  - 저장 후 시퀀스를 사용한 ID 이후로 다시 시작 (이후 JPA로 저장하는 엔티티와 ID 충돌 방지)
+ *  - 💡 H2 시퀀스 문법 (NEXT VALUE FOR, ALTER SEQUENCE ... RESTART WITH)
+ *
+ * 저장 후
+ *  - 주문 요약 읽기 모델(order_summary)은 원본에서 한 번에 다시 만듦 (OrderSummaryProjector.rebuild)
+ *  - 회원 이름 인덱스(MemberNameIndex)는 시작 완료(ApplicationReadyEvent) 시점에 만들어지므로 따로 처리하지 않음
+ */
+@Slf4j
+@Component
+public class BulkDataGenerator {
+
+    private static final int ALLOCATION_SIZE = 50; // @GeneratedValue 시퀀스 기본 allocationSize
+
+    private static final String[] SURNAMES = {"김", "이", "박", "최", "정", "강", "조", "윤", "장", "임"};
+    private static final String[] GIVEN_NAMES = {"민준", "서연", "도윤", "지우", "하준", "서윤", "시우", "하은", "지호", "수아"};
+    private static final String[] CITIES = {"서울", "부산", "인천", "대구", "대전", "광주", "울산", "진주"};
+    private static final String[] ITEM_WORDS = {"JPA", "SPRING", "JAVA", "KOTLIN", "SQL", "REDIS", "KAFKA", "DOCKER"};
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderSummaryProjector orderSummaryProjector;
+
+    private final int members;
+    private final int items;
+    private final int ordersPerMember;
+    private final int itemsPerOrder;
+    private final int partitions;
+    private final int batchSize;
+
+    public BulkDataGenerator(DataSource dataSource,
+                             JdbcTemplate jdbcTemplate,
+                             OrderSummaryProjector orderSummaryProjector,
+                             @Value("${jpashop.init.bulk.members:100000}") int members,
+                             @Value("${jpashop.init.bulk.items:1000}") int items,
+                             @Value("${jpashop.init.bulk.orders-per-member:10}") int ordersPerMember,
+                             @Value("${jpashop.init.bulk.items-per-order:3}") int itemsPerOrder,
+                             @Value("${jpashop.init.bulk.partitions:0}") int partitions,
+                             @Value("${jpashop.init.bulk.batch-size:1000}") int batchSize) {
+        // p6spy가 감싼 DataSource면 실제 커넥션 풀 사용 (INSERT마다 로그를 남기지 않도록)
+        this.dataSource = dataSource instanceof DecoratedDataSource decorated ? decorated.getRealDataSource() : dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderSummaryProjector = orderSummaryProjector;
+        this.members = members;
+        this.items = items;
+        this.ordersPerMember = ordersPerMember;
+        this.itemsPerOrder = itemsPerOrder;
+        this.partitions = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 대량 데이터 생성 후 테이블별 저장 건수, 소요 시간 반환
+     */
+    public Result generate() {
+        long orders = (long) members * ordersPerMember;
+        long orderItems = orders * itemsPerOrder;
+
+        IdBlock ids = new IdBlock(
+                reserve("member_seq", members),
+                reserve("item_seq", items),
+                reserve("orders_seq", orders),
+                reserve("delivery_seq", orders),
+                reserve("order_item_seq", orderItems));
+
+        long start = System.nanoTime();
+
+        int[] itemPrices = insertItems(ids.itemBase);
+        runPartitions(ids, itemPrices);
+
+        long insertNanos = System.nanoTime() - start;
+        orderSummaryProjector.rebuild();
+        long totalNanos = System.nanoTime() - start;
+
+        Result result = new Result(members, items, orders, orderItems, insertNanos, totalNanos);
+        log.info("대량 데이터 생성 : 회원 {}, 상품 {}, 주문 {}, 주문상품 {} (총 {} rows, 파티션 {}개) / INSERT {} ms, {} rows/s / 주문 요약 포함 {} ms",
+                members, items, orders, orderItems, result.getRows(), partitions,
+                insertNanos / 1_000_000, String.format("%.0f", result.getRowsPerSecond()), totalNanos / 1_000_000);
+
+        return result;
+    }
+
+    /**
+     * 시퀀스를 한 번 호출한 값 이후 count개의 ID를 사용하고, 시퀀스는 그 이후로 다시 시작
+     *  - 💡 pooled 최적화 : JPA는 시퀀스 값 V를 받으면 (V - allocationSize, V] 구간을 사용하므로 allocationSize만큼 더 뒤에서 시작
+     */
+    private long reserve(String sequence, long count) {
+        long base = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class);
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (base + count + ALLOCATION_SIZE));
+        return base;
+    }
+
+    /**
+     * 상품 (책) 저장, 가격 목록 반환 (주문상품의 주문 가격)
+     */
+    private int[] insertItems(long itemBase) {
+        SplittableRandom random = new SplittableRandom(0);
+        int[] prices = new int[items];
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO item (dtype, item_id, name, price, stock_quantity, version, autor, isbn) VALUES ('B', ?, ?, ?, ?, 0, ?, ?)")) {
+                for (int i = 0; i < items; i++) {
+                    prices[i] = random.nextInt(1, 50) * 1000;
+
+                    ps.setLong(1, itemBase + 1 + i);
+                    ps.setString(2, ITEM_WORDS[i % ITEM_WORDS.length] + " BOOK" + (i + 1));
+                    ps.setInt(3, prices[i]);
+                    ps.setInt(4, 1_000_000_000); // 주문으로 재고가 부족해지지 않도록
+                    ps.setString(5, SURNAMES[random.nextInt(SURNAMES.length)] + GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)]);
+                    ps.setString(6, String.format("978-%010d", i));
+                    ps.addBatch();
+
+                    if((i + 1) % batchSize == 0) {
+                        ps.executeBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("상품 생성 실패", e);
+        }
+
+        return prices;
+    }
+
+    /**
+     * 회원을 파티션으로 나누어 동시에 저장 (하나라도 실패하면 예외)
+     */
+    private void runPartitions(IdBlock ids, int[] itemPrices) {
+        ExecutorService executor = Executors.newFixedThreadPool(partitions);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < partitions; p++) {
+                int from = (int) ((long) members * p / partitions);
+                int to = (int) ((long) members * (p + 1) / partitions);
+                int partition = p;
+
+                futures.add(executor.submit(() -> {
+                    insertPartition(partition, from, to, ids, itemPrices);
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("대량 데이터 생성 중단", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("대량 데이터 생성 실패", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 회원 [from, to) 구간 저장
+     *  - 회원마다 주문 / 배송 / 주문상품을 만들고, batchSize 주문마다 FK 순서(회원 -> 배송 -> 주문 -> 주문상품)로 전송 후 커밋
+     *  - 상품은 인기 상품에 주문이 몰리도록 앞쪽 상품을 더 자주 선택
+     */
+    private void insertPartition(int partition, int from, int to, IdBlock ids, int[] itemPrices) throws SQLException {
+        SplittableRandom random = new SplittableRandom(partition + 1);
+        LocalDateTime now = LocalDateTime.now();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement memberPs = connection.prepareStatement(
+                     "INSERT INTO member (member_id, name, city, street, zipcode) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement deliveryPs = connection.prepareStatement(
+                     "INSERT INTO delivery (delivery_id, city, street, zipcode, status) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement orderPs = connection.prepareStatement(
+                     "INSERT INTO orders (order_id, member_id, delivery_id, order_date, status) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement orderItemPs = connection.prepareStatement(
+                     "INSERT INTO order_item (order_item_id, item_id, order_id, order_price, count) VALUES (?, ?, ?, ?, ?)")) {
+
+            connection.setAutoCommit(false);
+            int pending = 0;
+
+            for (int m = from; m < to; m++) {
+                long memberId = ids.memberBase + 1 + m;
+                String city = CITIES[random.nextInt(CITIES.length)];
+                String street = String.valueOf(random.nextInt(1, 1000));
+                String zipcode = String.format("%05d", random.nextInt(100000));
+
+                memberPs.setLong(1, memberId);
+                memberPs.setString(2, SURNAMES[random.nextInt(SURNAMES.length)] + GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)] + (m + 1));
+                memberPs.setString(3, city);
+                memberPs.setString(4, street);
+                memberPs.setString(5, zipcode);
+                memberPs.addBatch();
+
+                for (int o = 0; o < ordersPerMember; o++) {
+                    long orderIndex = (long) m * ordersPerMember + o;
+                    long orderId = ids.orderBase + 1 + orderIndex;
+                    long deliveryId = ids.deliveryBase + 1 + orderIndex;
+                    boolean canceled = random.nextInt(100) < 5; // 5% 취소
+
+                    deliveryPs.setLong(1, deliveryId);
+                    deliveryPs.setString(2, city);
+                    deliveryPs.setString(3, street);
+                    deliveryPs.setString(4, zipcode);
+                    deliveryPs.setString(5, canceled || random.nextBoolean() ? "DELIVERY" : "COMP");
+                    deliveryPs.addBatch();
+
+                    orderPs.setLong(1, orderId);
+                    orderPs.setLong(2, memberId);
+                    orderPs.setLong(3, deliveryId);
+                    orderPs.setTimestamp(4, Timestamp.valueOf(now.minusSeconds(random.nextLong(2L * 365 * 24 * 60 * 60)))); // 최근 2년
+                    orderPs.setString(5, canceled ? "CANCEL" : "ORDER");
+                    orderPs.addBatch();
+
+                    for (int i = 0; i < itemsPerOrder; i++) {
+                        double r = random.nextDouble();
+                        int itemIndex = (int) (itemPrices.length * r * r); // 앞쪽 상품일수록 자주 선택
+
+                        orderItemPs.setLong(1, ids.orderItemBase + 1 + orderIndex * itemsPerOrder + i);
+                        orderItemPs.setLong(2, ids.itemBase + 1 + itemIndex);
+                        orderItemPs.setLong(3, orderId);
+                        orderItemPs.setInt(4, itemPrices[itemIndex]);
+                        orderItemPs.setInt(5, random.nextInt(1, 6));
+                        orderItemPs.addBatch();
+                    }
+
+                    if(++pending == batchSize) {
+                        executeBatches(connection, memberPs, deliveryPs, orderPs, orderItemPs);
+                        pending = 0;
+                    }
+                }
+            }
+
+            executeBatches(connection, memberPs, deliveryPs, orderPs, orderItemPs);
+        }
+    }
+
+    private void executeBatches(Connection connection, PreparedStatement... statements) throws SQLException {
+        for (PreparedStatement statement : statements) {
+            statement.executeBatch();
+        }
+        connection.commit();
+    }
+
+    /**
+     * 테이블별 시퀀스 값 (이 값 + 1부터 ID로 사용)
+     */
+    @RequiredArgsConstructor
+    private static class IdBlock {
+        private final long memberBase;
+        private final long itemBase;
+        private final long orderBase;
+        private final long deliveryBase;
+        private final long orderItemBase;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Result {
+        private final long members;
+        private final long items;
+        private final long orders;
+        private final long orderItems;
+        private final long insertNanos; // 대량 INSERT 소요 시간
+        private final long totalNanos; // 주문 요약 재생성 포함 소요 시간
+
+        /**
+         * 회원 + 상품 + 주문 + 배송 + 주문상품
+         */
+        public long getRows() {
+            return members + items + orders * 2 + orderItems;
+        }
+
+        public double getRowsPerSecond() {
+            return getRows() / (insertNanos / 1_000_000_000.0);
+        }
+    }
+}
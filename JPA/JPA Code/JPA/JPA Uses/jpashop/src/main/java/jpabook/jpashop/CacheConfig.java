@@ -0,0 +1,36 @@
+package jpabook.jpashop;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Hibernate 2차 캐시 (JCache + Caffeine)
+ *  - region 설정(최대 개수, 만료, 통계)은 src/main/resources/application.conf
+ */
+@Configuration
+public class CacheConfig {
+
+    /**
+     * 애플리케이션 컨텍스트마다 별도의 CacheManager
+     *  - 기본 CacheManager는 JVM 전체에서 하나 : 같은 JVM의 다른 컨텍스트(다른 DB)와 캐시를 공유하면 안 됨 (예 : 테스트)
+     *  - URI는 구분용 (설정은 application.conf에서 읽음)
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("jpashop:hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
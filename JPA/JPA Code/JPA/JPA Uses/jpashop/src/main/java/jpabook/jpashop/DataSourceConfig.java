@@ -0,0 +1,82 @@
+package jpabook.jpashop;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jpabook.jpashop.datasource.DataSourceType;
+import jpabook.jpashop.datasource.ReplicaLagMonitor;
+import jpabook.jpashop.datasource.ReplicationRoutingDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * primary / replica DataSource (jpashop.datasource.replica.enabled=true 인 경우만)
+ *  - primary : spring.datasource.* (커넥션 풀 설정은 spring.datasource.hikari.*)
+ *  - replica : jpashop.datasource.replica.*
+ *  - 애플리케이션(JPA, JdbcTemplate)은 LazyConnectionDataSourceProxy -> ReplicationRoutingDataSource를 사용
+ */
+@Configuration
+@ConditionalOnProperty(name = "jpashop.datasource.replica.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public DataSource replicaDataSource(@Value("${jpashop.datasource.replica.url}") String url,
+                                        @Value("${jpashop.datasource.replica.username:sa}") String username,
+                                        @Value("${jpashop.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setReadOnly(true);
+
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                               @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               @Value("${jpashop.datasource.replica.max-lag-ms:1000}") long maxLagMillis) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, maxLagMillis);
+    }
+
+    @Bean
+    public DataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                        @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                        ReplicaLagMonitor replicaLagMonitor) {
+        ReplicationRoutingDataSource routingDataSource = new ReplicationRoutingDataSource(replicaLagMonitor);
+        routingDataSource.setTargetDataSources(Map.of(
+                DataSourceType.PRIMARY, primaryDataSource,
+                DataSourceType.REPLICA, replicaDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+
+        return routingDataSource;
+    }
+
+    /**
+     * 실제 SQL을 실행할 때 커넥션을 얻음 (그 시점에 트랜잭션 readOnly 속성으로 라우팅)
+     */
+    @Bean
+    @Primary
+    public DataSource lazyRoutingDataSource(@Qualifier("routingDataSource") DataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.EntityManager;
 import jpabook.jpashop.domain.*;
 import jpabook.jpashop.domain.item.Book;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,17 +17,27 @@ import org.springframework.transaction.annotation.Transactional;
  *  - userB
  *      + SPRING1 BOOK
  *      + SPRING2 BOOK
+ *
+ * jpashop.init.bulk.enabled=true : 이어서 대량 데이터 생성 (BulkDataGenerator, 실제 규모의 실행 계획 / 성능 측정용)
  */
 @Component
 @RequiredArgsConstructor
 public class InitDb {
 
     private final InitService initService;
+    private final BulkDataGenerator bulkDataGenerator;
+
+    @Value("${jpashop.init.bulk.enabled:false}")
+    private boolean bulkEnabled;
 
     @PostConstruct
     public void init() {
         initService.dbInit1();
         initService.dbInit2();
+
+        if(bulkEnabled) {
+            bulkDataGenerator.generate();
+        }
     }
 
     @Component
@@ -4,7 +4,9 @@ import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling // StockReservationBuffer 주기적 DB 반영
 @SpringBootApplication
 public class JpashopApplication {
 
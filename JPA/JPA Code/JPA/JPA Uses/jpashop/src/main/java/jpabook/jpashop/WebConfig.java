@@ -0,0 +1,32 @@
+package jpabook.jpashop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jpabook.jpashop.interceptor.QueryCountInterceptor;
+import jpabook.jpashop.monitor.QueryCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final QueryCounter queryCounter;
+    private final MeterRegistry meterRegistry;
+    private final int repeatThreshold;
+
+    public WebConfig(QueryCounter queryCounter,
+                     MeterRegistry meterRegistry,
+                     @Value("${jpashop.sql.repeat-threshold:3}") int repeatThreshold) {
+        this.queryCounter = queryCounter;
+        this.meterRegistry = meterRegistry;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryCountInterceptor(queryCounter, meterRegistry, repeatThreshold))
+                .order(1)
+                .addPathPatterns("/api/**");
+    }
+}
@@ -1,23 +1,41 @@
 package jpabook.jpashop.api;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jpabook.jpashop.domain.Address;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderItem;
 import jpabook.jpashop.domain.OrderStatus;
 import jpabook.jpashop.repository.OrderRepository;
 import jpabook.jpashop.repository.OrderSearch;
-import jpabook.jpashop.repository.order.query.OrderFlatDto;
-import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import jpabook.jpashop.repository.order.query.OrderFlatJsonWriter;
 import jpabook.jpashop.repository.order.query.OrderQueryDto;
 import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.service.OrderCommand;
+import jpabook.jpashop.service.OrderFacade;
+import jpabook.jpashop.service.query.OrderAsyncQueryService;
+import jpabook.jpashop.service.query.OrderQueryService;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.RestController;
+import org.hibernate.Hibernate;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -32,6 +50,7 @@ import java.util.stream.Collectors;
  * V3 : 엔티티를 조회해서 DTO로 변환 (Fetch Join 사용 O)
  *    - 페이징 시에는 N부분을 포기해야 함
  *    - 대신 Batch Fetch Size 옵션을 주면 N -> 1 쿼리로 변경 가능
+ *    - 주문이 많으면 DTO 변환을 병렬로 (ParallelDtoMapper, 지연 로딩이 남아 있으면 순차)
  *
  * V4 : JPA에서 DTO로 바로 조회, 컬렉션 N 조회 (1 + N Query)
  *    - 페이징 가능
@@ -39,8 +58,13 @@ import java.util.stream.Collectors;
  * V5 : JPA에서 DTO로 바로 조회, 컬렉션 1 조회 최적화 버전 (1 + 1 Query)
  *    - 페이징 가능
  *
+ * V5.1 : V5를 서로 의존하지 않는 쿼리 3개로 나누어 동시에 실행 (비동기, CompletableFuture)
+ *
  * V6 : JPA에서 DTO로 바로 조회, 플랫 데이터 (1 Query)
- *    - 페이징 불가능
+ *    - DB 페이징 불가능 (애플리케이션에서 주문 기준 페이징)
+ *
+ * V7 : JDBC 플랫 데이터를 DTO 없이 JSON으로 바로 쓰기 (1 Query)
+ *    - V6와 같은 JSON, DTO 할당 / Jackson 리플렉션 없음
  */
 
 @RestController
@@ -48,6 +72,14 @@ import java.util.stream.Collectors;
 public class OrderApiController {
     private final OrderRepository orderRepository;
     private final OrderQueryRepository orderQueryRepository;
+    private final OrderQueryService orderQueryService;
+    private final OrderAsyncQueryService orderAsyncQueryService;
+    private final OrderFacade orderFacade; // 낙관적 락 충돌 시 재시도
+    private final ObjectMapper objectMapper;
+    private final ParallelDtoMapper parallelDtoMapper;
+
+    private static final int EXPORT_CHUNK_SIZE = 1000; // 내보내기 시 컬렉션 조회 및 영속성 컨텍스트 초기화 단위
+    private static final int MAX_PAGE_LIMIT = 1000; // 페이징 API의 한 페이지 최대 건수 (범위 밖이면 400)
 
     /**
      * V1 : 엔티티 직접 노출
@@ -72,15 +104,11 @@ public class OrderApiController {
     @GetMapping("/api/v2/orders")
     public List<OrderDto> ordersV2() {
         List<Order> orders = orderRepository.findAllByString(new OrderSearch());
-        List<OrderDto> result = orders.stream()
-                .map(OrderDto::new)
-                .collect(Collectors.toList());
+        List<OrderDto> result = parallelDtoMapper.map(orders, OrderDto::new, OrderDto::isFetched);
 
         return result;
     }
 
-    // private final OrderQueryService orderQueryService;
-
     @GetMapping("/api/v3/orders")
     public List<OrderDto> ordersV3() {
         List<Order> orders = orderRepository.findAllWithItem();
@@ -88,9 +116,7 @@ public class OrderApiController {
         for (Order order : orders) {
             System.out.println("order ref = " + order + ", order.id = " + order.getId());
         }
-        List<OrderDto> result = orders.stream()
-                .map(OrderDto::new)
-                .collect(Collectors.toList());
+        List<OrderDto> result = parallelDtoMapper.map(orders, OrderDto::new, OrderDto::isFetched);
 
         return result;
         // return orderQueryService.ordersV3();
@@ -113,13 +139,48 @@ public class OrderApiController {
         // OrderItem - Item 쿼리 : OrderItem 1개당 Item 2개
         // 총 6개의 쿼리
         // 즉 1 + 2 + 4 = 7 (1 + 6 = 1 + N (+ N))개 쿼리 발생
+        List<OrderDto> result = parallelDtoMapper.map(orders, OrderDto::new, OrderDto::isFetched);
+
+        return result;
+    }
+
+    /**
+     * V3.2 엔티티를 조회해서 DTO로 변환 Keyset(Seek) 페이징
+     *  - V3.1의 offset은 앞의 행을 모두 읽고 버리므로, 뒤 페이지로 갈수록 느려짐
+     *  - 마지막 주문 id 이후부터 조회하므로, 몇 번째 페이지든 조회 비용이 동일
+     *  - 다음 페이지 조회 시에는 응답의 next 토큰을 after 파라미터로 전달 (마지막 페이지면 next = null)
+     *  - limit은 1 ~ MAX_PAGE_LIMIT, 잘못된 토큰이면 400
+     */
+    @GetMapping("/api/v3.2/orders")
+    public OrderCursorResult<OrderDto> ordersV3_keyset(
+            @RequestParam(value = "after", required = false) String after, // 페이징 파라미터 : 이전 응답의 next 토큰
+            @RequestParam(value = "limit", defaultValue = "100") @Min(1) @Max(MAX_PAGE_LIMIT) int limit) { // 페이징 파라미터 : limit = 100
+        Long lastOrderId = decodeCursor(after);
+
+        // limit + 1건을 조회해서 다음 페이지 존재 여부 확인 (별도 COUNT 쿼리 불필요)
+        List<Order> orders = orderRepository.findAllWithMemberDelivery(lastOrderId, limit + 1);
+
+        boolean hasNext = orders.size() > limit;
+        if(hasNext) {
+            orders = orders.subList(0, limit);
+        }
+
         List<OrderDto> result = orders.stream()
                 .map(OrderDto::new)
                 .collect(Collectors.toList());
 
-        return result;
+        String next = hasNext ? OrderCursor.encode(orders.get(orders.size() - 1).getId()) : null;
+
+        return new OrderCursorResult<>(result, next);
     }
 
+    private Long decodeCursor(String after) {
+        try {
+            return OrderCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
 
     @GetMapping("/api/v4/orders")
     public List<OrderQueryDto> ordersV4() {
@@ -131,17 +192,116 @@ public class OrderApiController {
         return orderQueryRepository.findAllByDto_optimization();
     }
 
+    /**
+     * V5.1 : 주문 / 배송지 / 주문상품 쿼리를 별도의 스레드에서 동시에 실행
+     *  - CompletableFuture 반환 : 요청 스레드는 쿼리를 기다리지 않고 반환, 완료되면 응답 (Spring MVC 비동기 처리)
+     *  - Keyset 페이징 (V3.2와 동일한 after / limit) : 세 쿼리 모두 한 페이지 범위의 주문만 조회
+     */
+    @GetMapping("/api/v5.1/orders")
+    public CompletableFuture<OrderCursorResult<OrderQueryDto>> ordersV5_1(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "100") @Min(1) @Max(MAX_PAGE_LIMIT) int limit) {
+        Long lastOrderId = decodeCursor(after);
+
+        // limit + 1건을 조회해서 다음 페이지 존재 여부 확인
+        return orderAsyncQueryService.findAllByDto_async(lastOrderId, limit + 1)
+                .thenApply(orders -> {
+                    boolean hasNext = orders.size() > limit;
+                    List<OrderQueryDto> result = hasNext ? orders.subList(0, limit) : orders;
+                    String next = hasNext ? OrderCursor.encode(result.get(result.size() - 1).getOrderId()) : null;
+
+                    return new OrderCursorResult<>(result, next);
+                });
+    }
+
+    /**
+     * V6 : 플랫 데이터를 o.id 순으로 조회하여, 연속된 행을 주문 하나로 접음 (OrderFlatAssembler)
+     *  - groupingBy와 달리 임시 key 객체, Map이 필요 없고 SQL 정렬 순서 유지
+     *  - 주문 기준 페이징 가능 (limit 미지정 시 전체, 지정 시 1 ~ MAX_PAGE_LIMIT)
+     */
     @GetMapping("/api/v6/orders")
-    public List<OrderQueryDto> ordersV6() {
-        List<OrderFlatDto> flats = orderQueryRepository.findAllByDto_flat();
-
-        return flats.stream()
-                .collect(Collectors.groupingBy(o -> new OrderQueryDto(o.getOrderId(), o.getName(), o.getOrderDate(), o.getOrderStatus(), o.getAddress())
-                , Collectors.mapping(o -> new OrderItemQueryDto(o.getOrderId(), o.getItemName(), o.getOrderPrice(), o.getCount())
-                , Collectors.toList())))
-                .entrySet().stream()
-                .map(e -> new OrderQueryDto(e.getKey().getOrderId(), e.getKey().getName(), e.getKey().getOrderDate(), e.getKey().getOrderStatus(),  e.getKey().getAddress(), e.getValue()))
-                .collect(Collectors.toList());
+    public List<OrderQueryDto> ordersV6(
+            @RequestParam(value = "offset", defaultValue = "0") @Min(0) int offset,
+            @RequestParam(value = "limit", required = false) @Min(1) @Max(MAX_PAGE_LIMIT) Integer limit) {
+        return orderQueryRepository.findAllByDto_flat(offset, limit != null ? limit : Integer.MAX_VALUE);
+    }
+
+    /**
+     * V7 : 플랫 데이터를 o.id 순으로 읽으면서 JsonGenerator에 바로 씀 (OrderFlatJsonWriter)
+     *  - V6는 행마다 OrderFlatDto, 주문마다 OrderQueryDto / OrderItemQueryDto를 만든 후 Jackson이 다시 읽어서 직렬화
+     *  - 행의 값을 바로 응답에 쓰므로 중간 객체가 없고, 전체 결과를 메모리에 모으지 않음
+     */
+    @GetMapping(value = "/api/v7/orders", produces = "application/json")
+    public void ordersV7(HttpServletResponse response) throws IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            OrderFlatJsonWriter writer = new OrderFlatJsonWriter(generator);
+
+            writer.start();
+            orderQueryService.streamFlatOrders(writer);
+            writer.finish();
+        }
+    }
+
+    /**
+     * 전체 주문 내보내기 (NDJSON : 한 줄에 주문 1건)
+     *  - V1 ~ V6는 전체 결과를 List로 만든 후 한 번에 직렬화하므로, 주문이 많으면 메모리 부족
+     *  - DB에서 읽는 즉시 한 건씩 응답에 쓰고 버리므로, 전체 건수와 상관 없이 메모리 사용량 일정
+     *  - 쿼리 : 루트 1번 (스트리밍), 컬렉션 EXPORT_CHUNK_SIZE 건당 1번
+     */
+    @GetMapping(value = "/api/orders/export", produces = "application/x-ndjson")
+    public void exportOrders(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        ObjectWriter writer = objectMapper.writerFor(OrderQueryDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE); // 매 건 flush 하지 않고 출력 버퍼에 위임
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null); // 값 사이 기본 구분자(공백) 대신 줄바꿈 사용
+
+            orderQueryService.exportOrders(EXPORT_CHUNK_SIZE, o -> {
+                try {
+                    writer.writeValue(generator, o);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * 대량 주문 (B2B 일괄 등록)
+     *  - 전체를 하나의 트랜잭션으로 처리, 하나라도 실패하면 전체 롤백
+     *  - 주문마다 회원, 상품, 수량(1개 이상) 검증 (List<@Valid ...> : 목록의 각 요소까지 검증)
+     */
+    @PostMapping("/api/orders/batch")
+    public CreateOrdersResponse ordersBatch(@RequestBody @Valid CreateOrdersRequest request) {
+        List<Long> orderIds = orderFacade.orderAll(request.getOrders());
+
+        return new CreateOrdersResponse(orderIds);
+    }
+
+    @Data
+    static class CreateOrdersRequest {
+        @NotEmpty
+        private List<@Valid OrderCommand> orders;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class CreateOrdersResponse {
+        private List<Long> orderIds;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class OrderCursorResult<T> {
+        private List<T> data;
+        private String next; // 다음 페이지 토큰
     }
 
     @Data
@@ -167,6 +327,24 @@ public class OrderApiController {
                     .map(OrderItemDto::new)
                     .collect(Collectors.toList());
         }
+
+        /**
+         * DTO 변환에 필요한 연관관계가 모두 초기화되었는지 (지연 로딩 없이 변환 가능한지)
+         */
+        static boolean isFetched(Order order) {
+            if(!Hibernate.isInitialized(order.getMember())
+                    || !Hibernate.isInitialized(order.getDelivery())
+                    || !Hibernate.isInitialized(order.getOrderItems())) {
+                return false;
+            }
+
+            for (OrderItem orderItem : order.getOrderItems()) {
+                if(!Hibernate.isInitialized(orderItem.getItem())) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 
     @Data
@@ -0,0 +1,47 @@
+package jpabook.jpashop.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset 페이징용 연속 토큰 (Continuation Token)
+ *  - 클라이언트에게는 마지막 주문 id를 그대로 노출하지 않고, 불투명한(opaque) 문자열로 전달
+ *  - 토큰 형식이 바뀌어도 API 스펙은 유지 가능
+ */
+public final class OrderCursor {
+
+    private static final String PREFIX = "order:";
+
+    private OrderCursor() {
+    }
+
+    public static String encode(Long lastOrderId) {
+        if(lastOrderId == null) {
+            return null;
+        }
+
+        byte[] raw = (PREFIX + lastOrderId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * 토큰이 없으면 null (첫 페이지)
+     */
+    public static Long decode(String token) {
+        if(token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+
+            if(!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("잘못된 페이지 토큰입니다.");
+            }
+
+            return Long.valueOf(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) { // Base64 디코딩 실패, NumberFormatException 포함
+            throw new IllegalArgumentException("잘못된 페이지 토큰입니다.", e);
+        }
+    }
+}
@@ -7,9 +7,11 @@ import jpabook.jpashop.repository.OrderRepository;
 import jpabook.jpashop.repository.OrderSearch;
 import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto;
 import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryRepository;
+import jpabook.jpashop.repository.order.simplequery.OrderSummaryQueryDto;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDateTime;
@@ -88,6 +90,17 @@ public class OrderSimpleApiController {
         return orderSimpleQueryRepository.findOrderDtos();
     }
 
+    /**
+     * V5 : 주문 요약 읽기 모델(order_summary)에서 조회
+     *   - JOIN 없이 테이블 1개만 읽음 (상태 조건은 인덱스 사용)
+     *   - 주문 생성 / 취소 시 같은 트랜잭션에서 갱신되므로 커밋된 주문과 항상 일치
+     *   - 전체 주문 가격까지 미리 계산되어 있음
+     */
+    @GetMapping("/api/v5/simple-orders")
+    public List<OrderSummaryQueryDto> ordersV5(@RequestParam(required = false) OrderStatus status) {
+        return orderSimpleQueryRepository.findOrderSummaries(status);
+    }
+
     @Data
     static class SimpleOrderDto {
         private Long orderId;
@@ -0,0 +1,73 @@
+package jpabook.jpashop.api;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * 엔티티 -> DTO 병렬 변환 (jpashop.api.parallel-mapping.enabled=true)
+ *  - 주문이 수천 건이면 DTO 변환(주문상품 목록 복사 등)도 요청 스레드 하나에서 CPU 시간을 차지
+ *  - threshold 건 이상이면 전용 ForkJoinPool에서 parallelStream으로 변환 (결과 순서는 유지)
+ *  - 공용 ForkJoinPool(commonPool)을 쓰지 않으므로, 다른 parallelStream과 스레드를 나누어 쓰지 않음
+ *
+ * 💡 영속성 컨텍스트(Session)는 스레드에 안전하지 않으므로, 다른 스레드에서 지연 로딩을 하면 안 됨
+ *  - 모든 엔티티가 fetched(지연 로딩할 연관관계가 모두 초기화됨)일 때만 병렬 변환, 하나라도 아니면 요청 스레드에서 변환
+ *  - Fetch Join으로 모두 조회한 경우(V3)만 병렬 변환, 지연 로딩 / Batch Fetch로 초기화하는 경우(V2, V3.1)는 순차 변환
+ */
+@Slf4j
+@Component
+public class ParallelDtoMapper {
+
+    private final ForkJoinPool pool; // 병렬 변환을 사용하지 않으면 null
+    private final int threshold;
+
+    public ParallelDtoMapper(@Value("${jpashop.api.parallel-mapping.enabled:false}") boolean enabled,
+                             @Value("${jpashop.api.parallel-mapping.threshold:1000}") int threshold,
+                             @Value("${jpashop.api.parallel-mapping.parallelism:0}") int parallelism) {
+        this.pool = enabled
+                ? new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors())
+                : null;
+        this.threshold = threshold;
+    }
+
+    /**
+     * @param fetched 엔티티의 지연 로딩 연관관계가 모두 초기화되었는지 (Hibernate.isInitialized)
+     */
+    public <T, R> List<R> map(List<T> entities, Function<T, R> mapper, Predicate<T> fetched) {
+        if(pool == null || entities.size() < threshold) {
+            return mapSequential(entities, mapper);
+        }
+
+        for (T entity : entities) {
+            if(!fetched.test(entity)) {
+                log.debug("초기화되지 않은 프록시가 있어서 순차 변환합니다. entity = {}", entity);
+                return mapSequential(entities, mapper);
+            }
+        }
+
+        return pool.submit(() -> entities.parallelStream()
+                        .map(mapper)
+                        .collect(Collectors.toList()))
+                .join();
+    }
+
+    private <T, R> List<R> mapSequential(List<T> entities, Function<T, R> mapper) {
+        return entities.stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if(pool != null) {
+            pool.shutdown();
+        }
+    }
+}
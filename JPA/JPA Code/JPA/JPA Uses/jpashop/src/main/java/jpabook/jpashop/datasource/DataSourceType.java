@@ -0,0 +1,6 @@
+package jpabook.jpashop.datasource;
+
+public enum DataSourceType {
+    PRIMARY, // 쓰기 + 읽기
+    REPLICA // 읽기 전용 (primary 복제본)
+}
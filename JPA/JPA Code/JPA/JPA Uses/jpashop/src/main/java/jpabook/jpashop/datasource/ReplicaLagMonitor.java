@@ -0,0 +1,99 @@
+package jpabook.jpashop.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * replica 복제 지연 측정 (heartbeat)
+ *  - 주기마다 primary의 heartbeat 행에 현재 시각을 기록하고, 복제된 replica의 heartbeat 값과 비교
+ *  - 지연 = primary heartbeat - replica heartbeat (측정 주기 단위, 복제가 멈추면 주기마다 증가)
+ *  - 지연이 max-lag-ms를 넘거나 replica에 연결할 수 없으면 사용 불가 -> readOnly 트랜잭션도 primary에서 읽음
+ *  - 💡 처음 측정하기 전까지는 사용 불가 (안전한 쪽으로 시작)
+ *  - 💡 heartbeat 테이블은 빈 생성 시가 아니라 시작이 끝난 후(ApplicationReadyEvent) primary에 생성, 그 전에는 측정하지 않음
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)";
+    private static final String SELECT_BEAT = "SELECT beat_at FROM replica_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+
+    private volatile boolean initialized = false;
+    private volatile boolean replicaAvailable = false;
+    private volatile long lagMillis = -1; // 측정 실패 시 -1
+
+    public ReplicaLagMonitor(DataSource primaryDataSource, DataSource replicaDataSource, long maxLagMillis) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    /**
+     * 시작 시 heartbeat 테이블 생성 + 첫 heartbeat 기록
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void initialize() {
+        primary.execute(CREATE_TABLE);
+        beat();
+        initialized = true;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${jpashop.datasource.replica.lag-check-interval-ms:1000}")
+    public synchronized void check() {
+        if(!initialized) {
+            return;
+        }
+
+        try {
+            Long primaryBeat = primary.query(SELECT_BEAT, rs -> rs.next() ? rs.getLong(1) : null);
+            Long replicaBeat = replica.query(SELECT_BEAT, rs -> rs.next() ? rs.getLong(1) : null);
+
+            if(primaryBeat == null || replicaBeat == null) { // 첫 heartbeat가 아직 복제되지 않음
+                updateState(-1);
+            } else {
+                updateState(primaryBeat - replicaBeat);
+            }
+        } catch (DataAccessException e) {
+            log.warn("replica 지연 측정 실패 : {}", e.getMessage());
+            updateState(-1);
+        }
+
+        beat();
+    }
+
+    private void updateState(long lag) {
+        boolean available = lag >= 0 && lag <= maxLagMillis;
+
+        if(available != replicaAvailable) {
+            log.info("replica {} (지연 = {}ms, 허용 = {}ms)", available ? "사용" : "사용 불가, primary에서 읽음", lag, maxLagMillis);
+        }
+
+        lagMillis = lag;
+        replicaAvailable = available;
+    }
+
+    private void beat() {
+        long now = System.currentTimeMillis();
+
+        if(primary.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1", now) == 0) {
+            primary.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)", now);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package jpabook.jpashop.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 트랜잭션 속성에 따라 DataSource 선택
+ *  - @Transactional(readOnly = true) : REPLICA (replica 지연이 크거나 연결할 수 없으면 PRIMARY)
+ *  - 그 외 (쓰기 트랜잭션, 트랜잭션 없음) : PRIMARY
+ *
+ * 💡 반드시 LazyConnectionDataSourceProxy로 감싸서 사용
+ *  - JpaTransactionManager는 트랜잭션 시작(doBegin) 시 커넥션을 먼저 얻고, 그 다음에 readOnly 속성을 TransactionSynchronizationManager에 등록
+ *  - 감싸지 않으면 readOnly 트랜잭션도 항상 PRIMARY로 결정됨
+ *  - LazyConnectionDataSourceProxy는 실제 SQL을 실행할 때 커넥션을 얻으므로, 그 시점에는 readOnly 속성을 알 수 있음
+ */
+@Slf4j
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    public ReplicationRoutingDataSource(ReplicaLagMonitor replicaLagMonitor) {
+        this.replicaLagMonitor = replicaLagMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if(!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return DataSourceType.PRIMARY;
+        }
+
+        if(!replicaLagMonitor.isReplicaAvailable()) {
+            log.debug("replica 사용 불가 (지연 = {}ms), primary에서 읽음", replicaLagMonitor.getLagMillis());
+            return DataSourceType.PRIMARY;
+        }
+
+        return DataSourceType.REPLICA;
+    }
+}
@@ -33,7 +33,7 @@ public class Category {
 
     // == 연관관계 편의 메서드 == //
     public void addChildCategory(Category child) {
-        this.child.add(this);
+        this.child.add(child);
         child.setParent(this);
     }
 }
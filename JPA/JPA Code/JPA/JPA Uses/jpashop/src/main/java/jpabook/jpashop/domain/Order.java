@@ -1,6 +1,7 @@
 package jpabook.jpashop.domain;
 
 import jakarta.persistence.*;
+import jpabook.jpashop.repository.order.summary.OrderSummaryListener;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -13,6 +14,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "orders")
+@EntityListeners(OrderSummaryListener.class) // 도메인 이벤트 -> 주문 요약 읽기 모델 (order_summary)
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Order {
@@ -37,6 +39,10 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus status; // 주문상태 [ORDER, CANCEL]
 
+    @Transient
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private List<OrderEvent> events = new ArrayList<>(); // 아직 처리되지 않은 도메인 이벤트 (OrderSummaryListener)
+
     // == 연관관계 편의 메서드 == //
     public void setMember(Member member) {
         this.member = member;
@@ -72,6 +78,7 @@ public class Order {
         order.setStatus(OrderStatus.ORDER);
         order.setOrderDate(LocalDateTime.now());
 
+        order.events.add(OrderEvent.CREATED);
         return order;
     }
 
@@ -89,6 +96,21 @@ public class Order {
         for (OrderItem orderItem : orderItems) {
             orderItem.cancel(); // 주문에 대한 주문 상품은 연관 관계가 있으므로, 연관된 OrderItem도 취소
         }
+
+        events.add(OrderEvent.CANCELED);
+    }
+
+    /**
+     * 쌓인 도메인 이벤트를 꺼내고 비움 (한 번만 처리되도록)
+     */
+    public List<OrderEvent> pullEvents() {
+        if(events.isEmpty()) {
+            return List.of();
+        }
+
+        List<OrderEvent> pulled = new ArrayList<>(events);
+        events.clear();
+        return pulled;
     }
 
     // == 조회 로직 == //
@@ -0,0 +1,10 @@
+package jpabook.jpashop.domain;
+
+/**
+ * 주문 도메인 이벤트
+ *  - Order.createOrder(), Order.cancel()에서 등록, 주문이 INSERT / UPDATE된 후 엔티티 리스너가 꺼내서 처리 (OrderSummaryListener)
+ */
+public enum OrderEvent {
+    CREATED, // 주문 생성
+    CANCELED // 주문 취소
+}
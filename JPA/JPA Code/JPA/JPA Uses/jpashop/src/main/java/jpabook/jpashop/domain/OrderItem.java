@@ -48,6 +48,20 @@ public class OrderItem {
         return orderItem;
     }
 
+    /**
+     * 생성 메서드 (재고 차감 없음)
+     *  - 재고를 DB에서 조건부 UPDATE로 직접 차감하는 경우 사용 (ItemRepository.removeStock)
+     *  - 💡 엔티티의 재고를 다시 줄이면 변경 감지로 재고가 한 번 더 차감되므로 주의
+     */
+    public static OrderItem createReservedOrderItem(Item item, int orderPrice, int count) {
+        OrderItem orderItem = new OrderItem();
+        orderItem.setItem(item);
+        orderItem.setOrderPrice(orderPrice);
+        orderItem.setCount(count);
+
+        return orderItem;
+    }
+
     // == 비즈니스 로직 == //
     public void cancel() {
         getItem().addStock(count); // 주문 수량만큼 재고 수량 원복
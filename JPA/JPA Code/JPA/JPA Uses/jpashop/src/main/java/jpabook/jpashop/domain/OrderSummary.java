@@ -0,0 +1,48 @@
+package jpabook.jpashop.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문 요약 읽기 모델 (order_summary)
+ *  - 주문 목록 조회 시 Order, Member, Delivery를 JOIN하지 않고 테이블 1개만 읽음
+ *  - 주문 생성 / 취소, 회원 이름 변경 시 같은 트랜잭션에서 JDBC로 갱신 (OrderSummaryProjector)
+ *  - 💡 JPA로는 조회만 함 (@Immutable)
+ */
+@Entity
+@Immutable
+@Table(name = "order_summary", indexes = {
+        @Index(name = "idx_order_summary_status", columnList = "status, order_id"), // 상태별 목록 (order_id 순)
+        @Index(name = "idx_order_summary_member", columnList = "member_id") // 회원 이름 변경
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OrderSummary {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @Column(name = "member_name")
+    private String memberName;
+
+    @Column(name = "order_date")
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    @Embedded
+    private Address address; // 배송지
+
+    @Column(name = "total_price")
+    private int totalPrice; // Order.getTotalPrice()
+}
@@ -0,0 +1,30 @@
+package jpabook.jpashop.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * 재고 예약 버퍼 소유권 (stock_buffer_lease, 행 1개)
+ *  - 버퍼는 인스턴스 1개에서만 사용 가능 (인스턴스마다 DB 재고 전체를 메모리에 담으면 인스턴스 수만큼 초과 판매)
+ *  - 소유한 인스턴스가 주기적으로 만료 시각을 연장, 만료되었거나 같은 owner면 다른 인스턴스(재시작)가 가져감
+ *  - 💡 JDBC로만 변경, JPA로는 테이블 생성만 (@Immutable)
+ */
+@Entity
+@Immutable
+@Table(name = "stock_buffer_lease")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StockBufferLease {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt; // epoch millis
+}
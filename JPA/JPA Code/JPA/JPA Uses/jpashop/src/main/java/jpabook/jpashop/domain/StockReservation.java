@@ -0,0 +1,31 @@
+package jpabook.jpashop.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * 인기 상품 재고 예약 원장 (stock_reservation)
+ *  - 주문 트랜잭션에서 예약 수량을 INSERT (주문과 함께 커밋 / 롤백) : 프로세스가 죽어도 커밋된 예약은 남음
+ *  - DB 반영(StockReservationBuffer.flush) 시 상품별로 합산해서 재고에서 빼고 삭제 (같은 트랜잭션)
+ *  - 💡 JDBC로만 변경, JPA로는 테이블 생성만 (@Immutable)
+ */
+@Entity
+@Immutable
+@Table(name = "stock_reservation")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StockReservation {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "reservation_id")
+    private Long id;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(nullable = false)
+    private int quantity;
+}
@@ -6,11 +6,24 @@ import jpabook.jpashop.exception.NotEnoughStockException;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * 2차 캐시 : region "item" (Book / Album / Movie는 SINGLE_TABLE이므로 부모의 region을 함께 사용)
+ *  - READ_WRITE : 수정 중인 엔티티는 캐시에 락을 걸고, 커밋 후 새 값으로 교체 (커밋 전 값이 다른 트랜잭션에 보이지 않음)
+ *  - 💡 Native SQL(ItemRepository), JDBC로 직접 변경하면 캐시를 거치지 않으므로 변경한 상품만 잠금(ItemRepository) 또는 제거(evict) 필요
+ *
+ * DynamicUpdate : 변경 감지 시 변경된 컬럼만 UPDATE (예 : 재고만 바꾸면 name, price는 SET 절에서 제외)
+ */
 @Entity
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item")
 @Getter @Setter
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "dtype")
@@ -24,6 +37,9 @@ public abstract class Item {
     private int price;
     private int stockQuantity;
 
+    @Version
+    private Long version; // 낙관적 락 : 동시에 같은 상품을 수정하면 나중에 커밋한 쪽이 실패 (OptimisticLockException)
+
     @ManyToMany(mappedBy = "items")
     private List<Category> categories = new ArrayList<>();
 
@@ -0,0 +1,74 @@
+package jpabook.jpashop.interceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jpabook.jpashop.monitor.QueryCountScope;
+import jpabook.jpashop.monitor.QueryCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * HTTP 요청 1건당 쿼리 수 집계
+ *  - 메트릭 : jpashop.sql.statements (uri, method별 요청당 쿼리 수 분포)
+ *  - 메트릭 : jpashop.sql.repeated (같은 SQL이 threshold번 이상 반복된 요청 수, N + 1 의심)
+ *  - 💡 JSON 직렬화, 뷰 렌더링 중 지연 로딩 쿼리도 afterCompletion 전에 실행되므로 포함
+ *  - 💡 비동기 요청(CompletableFuture 반환)은 다른 스레드에서 실행한 쿼리를 세지 않음 (결과 응답 시 다시 디스패치될 때의 쿼리만 집계)
+ */
+@Slf4j
+public class QueryCountInterceptor implements AsyncHandlerInterceptor {
+    public static final String QUERY_COUNT_SCOPE = QueryCountInterceptor.class.getName() + ".scope";
+
+    private final QueryCounter queryCounter;
+    private final MeterRegistry meterRegistry;
+    private final int repeatThreshold;
+
+    public QueryCountInterceptor(QueryCounter queryCounter, MeterRegistry meterRegistry, int repeatThreshold) {
+        this.queryCounter = queryCounter;
+        this.meterRegistry = meterRegistry;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        request.setAttribute(QUERY_COUNT_SCOPE, queryCounter.start());
+        return true;
+    }
+
+    /**
+     * 비동기 처리 시작 : afterCompletion이 호출되지 않으므로 여기서 구간 종료 (요청 스레드의 ThreadLocal 정리)
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        QueryCountScope scope = (QueryCountScope) request.getAttribute(QUERY_COUNT_SCOPE);
+        if(scope != null) {
+            scope.close();
+            request.removeAttribute(QUERY_COUNT_SCOPE);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
+        QueryCountScope scope = (QueryCountScope) request.getAttribute(QUERY_COUNT_SCOPE);
+        if(scope == null) {
+            return;
+        }
+        scope.close();
+
+        // /api/v2/members/{id} 처럼 패턴으로 집계 (실제 URI는 종류가 너무 많아짐)
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        meterRegistry.summary("jpashop.sql.statements", "uri", uri, "method", request.getMethod())
+                .record(scope.getCount());
+
+        Map<String, Integer> repeated = scope.getRepeatedStatements(repeatThreshold);
+        if(!repeated.isEmpty()) {
+            meterRegistry.counter("jpashop.sql.repeated", "uri", uri, "method", request.getMethod()).increment();
+            log.warn("N + 1 의심 [{} {}] 쿼리 {}개, 반복된 SQL = {}", request.getMethod(), uri, scope.getCount(), repeated);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package jpabook.jpashop.monitor;
+
+import jpabook.jpashop.repository.order.summary.OrderSummaryProjector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 주문 요약 읽기 모델 점검 / 재생성 (actuator)
+ *  - GET  /actuator/ordersummary : 원본과 다른 행 수 (drift)
+ *  - POST /actuator/ordersummary : 원본에서 다시 만듦
+ */
+@Component
+@Endpoint(id = "ordersummary")
+@RequiredArgsConstructor
+public class OrderSummaryEndpoint {
+
+    private final OrderSummaryProjector orderSummaryProjector;
+
+    @ReadOperation
+    public Map<String, Long> drift() {
+        return Map.of("drift", orderSummaryProjector.countDrift());
+    }
+
+    @WriteOperation
+    public Map<String, Integer> rebuild() {
+        return Map.of("rebuilt", orderSummaryProjector.rebuild());
+    }
+}
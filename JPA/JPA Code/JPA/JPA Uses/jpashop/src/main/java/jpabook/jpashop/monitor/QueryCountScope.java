@@ -0,0 +1,73 @@
+package jpabook.jpashop.monitor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 쿼리 수 집계 구간
+ *  - 같은 SQL이 반복되면 N + 1 의심 (파라미터만 다르고 SQL 문자열은 동일)
+ *  - 테스트에서는 assertQueryCount로 쿼리 수가 늘어나면 실패 처리
+ *
+ * <pre>
+ * try (QueryCountScope scope = queryCounter.start()) {
+ *     mockMvc.perform(get("/api/v4/orders"));
+ *     scope.assertQueryCount(3);
+ * }
+ * </pre>
+ */
+public class QueryCountScope implements AutoCloseable {
+
+    private final Consumer<QueryCountScope> onClose;
+    private final Map<String, Integer> statements = new LinkedHashMap<>(); // SQL -> 실행 횟수
+    private int count;
+
+    QueryCountScope(Consumer<QueryCountScope> onClose) {
+        this.onClose = onClose;
+    }
+
+    void record(String sql) {
+        count++;
+        statements.merge(sql, 1, Integer::sum);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * threshold번 이상 반복된 SQL (N + 1 의심)
+     */
+    public Map<String, Integer> getRepeatedStatements(int threshold) {
+        return statements.entrySet().stream()
+                .filter(e -> e.getValue() >= threshold)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * 쿼리 수가 expected를 넘으면 실패
+     */
+    public void assertQueryCount(int expected) {
+        if(count > expected) {
+            throw new AssertionError("쿼리 수 초과 : expected <= " + expected + ", actual = " + count
+                    + ", 반복된 SQL = " + getRepeatedStatements(2));
+        }
+    }
+
+    /**
+     * threshold번 이상 반복된 SQL이 있으면 실패
+     */
+    public void assertNoRepeatedStatements(int threshold) {
+        Map<String, Integer> repeated = getRepeatedStatements(threshold);
+
+        if(!repeated.isEmpty()) {
+            throw new AssertionError("N + 1 의심 SQL : " + repeated);
+        }
+    }
+
+    @Override
+    public void close() {
+        onClose.accept(this);
+    }
+}
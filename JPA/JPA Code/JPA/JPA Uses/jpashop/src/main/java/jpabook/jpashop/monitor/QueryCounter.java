@@ -0,0 +1,50 @@
+package jpabook.jpashop.monitor;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * DB에 실행한 SQL 수 집계 (p6spy JdbcEventListener, 빈으로 등록하면 p6spy가 감싼 DataSource에 연결)
+ *  - start()로 시작한 구간(QueryCountScope) 동안 현재 스레드에서 실행(execute)한 SQL을 셈
+ *  - DataSource 단계에서 세므로 Hibernate뿐만 아니라 JdbcTemplate으로 실행한 SQL도 포함 (v7 주문 조회, 주문 요약, 재고 버퍼 반영)
+ *  - 구간은 중첩 가능 (예 : 테스트 구간 안에서 HTTP 요청 구간)
+ *  - 💡 JDBC Batch는 묶음당 1번, 다른 스레드에서 실행한 SQL은 세지 않음
+ */
+@Component
+public class QueryCounter extends SimpleJdbcEventListener {
+
+    private static final ThreadLocal<Deque<QueryCountScope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void onBeforeAnyExecute(StatementInformation statementInformation) {
+        Deque<QueryCountScope> scopes = SCOPES.get();
+        if(scopes.isEmpty()) {
+            SCOPES.remove(); // 구간 밖에서는 ThreadLocal을 남기지 않음
+            return;
+        }
+
+        String sql = statementInformation.getSql(); // 바인딩 전 SQL (파라미터만 다른 SQL은 같은 문자열)
+        for (QueryCountScope scope : scopes) {
+            scope.record(sql);
+        }
+    }
+
+    public QueryCountScope start() {
+        QueryCountScope scope = new QueryCountScope(this::end);
+        SCOPES.get().push(scope);
+        return scope;
+    }
+
+    private void end(QueryCountScope scope) {
+        Deque<QueryCountScope> scopes = SCOPES.get();
+        scopes.remove(scope);
+
+        if(scopes.isEmpty()) {
+            SCOPES.remove(); // 스레드 풀 재사용 시 누수 방지
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package jpabook.jpashop.monitor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+
+/**
+ * 2차 캐시 통계 메트릭 (region별 cache.gets{result=hit|miss}, cache.puts, cache.evictions, cache.removals)
+ *  - Hibernate가 사용하는 CacheManager(CacheConfig)의 캐시를 Micrometer에 등록
+ *  - 💡 통계는 application.conf의 monitoring.statistics = true 인 캐시만 수집됨
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics {
+
+    private final CacheManager hibernateCacheManager;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Hibernate가 region(캐시)을 모두 만든 후 등록
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bind() {
+        for (String regionName : hibernateCacheManager.getCacheNames()) {
+            JCacheMetrics.monitor(meterRegistry, hibernateCacheManager.getCache(regionName), Tags.of("cacheManager", "hibernate"));
+            log.info("2차 캐시 메트릭 등록 region = {}", regionName);
+        }
+    }
+}
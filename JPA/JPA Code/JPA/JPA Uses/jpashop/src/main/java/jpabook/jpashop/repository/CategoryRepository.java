@@ -0,0 +1,28 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jpabook.jpashop.domain.Category;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class CategoryRepository {
+    private final EntityManager em;
+
+    public void save(Category category) {
+        em.persist(category);
+    }
+
+    public Category findOne(Long id) {
+        return em.find(Category.class, id);
+    }
+
+    /**
+     * 행 잠금 (SELECT ... FOR UPDATE) : 트랜잭션이 끝날 때까지 다른 트랜잭션의 잠금, 변경을 대기시킴
+     */
+    public Category findOneForUpdate(Long id) {
+        return em.find(Category.class, id, LockModeType.PESSIMISTIC_WRITE);
+    }
+}
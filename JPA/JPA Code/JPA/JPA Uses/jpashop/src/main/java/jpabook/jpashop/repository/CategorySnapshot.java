@@ -0,0 +1,170 @@
+package jpabook.jpashop.repository;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 카테고리 트리 스냅샷 (불변, CategoryTree)
+ *  - 카테고리를 전위 순회(pre-order) 순서로 번호를 매겨서 배열에 저장 (Nested Set)
+ *  - 카테고리 A의 하위 트리 = 번호가 [A의 번호, A의 마지막 자손 번호] 구간인 카테고리 (연속된 구간)
+ *  - 상품도 카테고리 번호 순으로 한 배열에 저장하므로, 하위 트리의 상품 = 배열의 연속된 구간
+ *
+ * 조회 비용 (DB 조회 없음)
+ *  - 하위 트리 포함 여부 : O(1) (번호 비교)
+ *  - 하위 트리 카테고리 / 상품 id : O(결과 수)
+ *
+ * 💡 부모를 따라가면 순환(cycle)이 생기는 카테고리는 루트에서 닿을 수 없으므로 스냅샷에서 제외
+ */
+public final class CategorySnapshot {
+
+    public static final CategorySnapshot EMPTY = build(Map.of(), Map.of());
+
+    private final Map<Long, Integer> positions; // 카테고리 id -> 전위 순회 번호
+    private final long[] categoryIds; // 번호 -> 카테고리 id
+    private final int[] ends; // 번호 -> 마지막 자손의 번호 (자손이 없으면 자기 자신)
+    private final int[] itemStarts; // 번호 -> itemIds에서 이 카테고리 상품의 시작 위치 (길이 = 카테고리 수 + 1)
+    private final long[] itemIds; // 카테고리 번호 순으로 정렬된 상품 id
+
+    private CategorySnapshot(Map<Long, Integer> positions, long[] categoryIds, int[] ends, int[] itemStarts, long[] itemIds) {
+        this.positions = positions;
+        this.categoryIds = categoryIds;
+        this.ends = ends;
+        this.itemStarts = itemStarts;
+        this.itemIds = itemIds;
+    }
+
+    /**
+     * @param parents 카테고리 id -> 부모 id (루트는 null)
+     * @param items   카테고리 id -> 상품 id
+     */
+    public static CategorySnapshot build(Map<Long, Long> parents, Map<Long, List<Long>> items) {
+        // 부모 -> 자식 (id 순)
+        Map<Long, List<Long>> children = new TreeMap<>();
+        List<Long> roots = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : new TreeMap<>(parents).entrySet()) {
+            Long parentId = entry.getValue();
+
+            if(parentId == null || !parents.containsKey(parentId)) {
+                roots.add(entry.getKey());
+            } else {
+                children.computeIfAbsent(parentId, id -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+
+        // 전위 순회 (재귀 없이 스택 사용, 깊은 트리에서도 StackOverflow 없음)
+        Map<Long, Integer> positions = new HashMap<>();
+        long[] categoryIds = new long[parents.size()];
+        int[] ends = new int[parents.size()];
+        int count = 0;
+
+        Deque<Long> stack = new ArrayDeque<>();
+        Deque<Integer> open = new ArrayDeque<>(); // 하위 트리를 아직 닫지 않은 카테고리 번호
+        for (int r = roots.size() - 1; r >= 0; r--) {
+            stack.push(roots.get(r));
+        }
+
+        while(!stack.isEmpty()) {
+            Long categoryId = stack.pop();
+
+            // 이전 카테고리들 중 지금 카테고리의 조상이 아닌 것은 하위 트리가 끝남
+            while(!open.isEmpty() && !isChildOf(parents, categoryId, categoryIds[open.peek()])) {
+                ends[open.peek()] = count - 1;
+                open.pop();
+            }
+
+            positions.put(categoryId, count);
+            categoryIds[count] = categoryId;
+            open.push(count);
+            count++;
+
+            List<Long> childIds = children.getOrDefault(categoryId, List.of());
+            for (int c = childIds.size() - 1; c >= 0; c--) {
+                stack.push(childIds.get(c));
+            }
+        }
+
+        while(!open.isEmpty()) {
+            ends[open.pop()] = count - 1;
+        }
+
+        // 상품을 카테고리 번호 순으로 한 배열에
+        int[] itemStarts = new int[count + 1];
+        List<Long> sortedItems = new ArrayList<>();
+        for (int pos = 0; pos < count; pos++) {
+            itemStarts[pos] = sortedItems.size();
+            sortedItems.addAll(items.getOrDefault(categoryIds[pos], List.of()));
+        }
+        itemStarts[count] = sortedItems.size();
+
+        return new CategorySnapshot(
+                Collections.unmodifiableMap(positions),
+                Arrays.copyOf(categoryIds, count),
+                Arrays.copyOf(ends, count),
+                itemStarts,
+                sortedItems.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private static boolean isChildOf(Map<Long, Long> parents, Long categoryId, long parentId) {
+        Long parent = parents.get(categoryId);
+        return parent != null && parent == parentId;
+    }
+
+    public boolean contains(Long categoryId) {
+        return positions.containsKey(categoryId);
+    }
+
+    public int size() {
+        return categoryIds.length;
+    }
+
+    /**
+     * categoryId가 rootId 자신이거나 rootId의 자손인지
+     */
+    public boolean isInSubtree(Long rootId, Long categoryId) {
+        Integer root = positions.get(rootId);
+        Integer target = positions.get(categoryId);
+
+        return root != null && target != null && root <= target && target <= ends[root];
+    }
+
+    /**
+     * rootId 자신과 모든 자손 카테고리 id (전위 순회 순서, 없는 카테고리면 빈 목록)
+     */
+    public List<Long> findSubtreeCategoryIds(Long rootId) {
+        Integer root = positions.get(rootId);
+        if(root == null) {
+            return List.of();
+        }
+
+        List<Long> result = new ArrayList<>(ends[root] - root + 1);
+        for (int pos = root; pos <= ends[root]; pos++) {
+            result.add(categoryIds[pos]);
+        }
+        return result;
+    }
+
+    /**
+     * rootId의 하위 트리(자신 포함)에 속한 상품 id (중복 제거, 없는 카테고리면 빈 Set)
+     */
+    public Set<Long> findSubtreeItemIds(Long rootId) {
+        Integer root = positions.get(rootId);
+        if(root == null) {
+            return Set.of();
+        }
+
+        Set<Long> result = new LinkedHashSet<>();
+        for (int i = itemStarts[root]; i < itemStarts[ends[root] + 1]; i++) {
+            result.add(itemIds[i]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+package jpabook.jpashop.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 카테고리 트리 캐시
+ *  - 카테고리는 parent_id만 가지고 있으므로(인접 리스트), 하위 트리를 찾으려면 깊이만큼 반복 조회 (또는 재귀 CTE)
+ *  - 카테고리 전체와 category_item을 한 번씩(2번) 읽어서 불변 스냅샷(CategorySnapshot)을 만들고, 참조만 교체
+ *  - 조회하는 쪽은 항상 완성된 스냅샷 하나만 보므로, 다시 만드는 중에도 락 없이 조회 가능
+ *
+ * 💡 카테고리는 자주 바뀌지 않으므로, 바뀔 때마다 전체를 다시 만듦
+ * 💡 CategoryService를 거치지 않고 카테고리를 변경하면 rebuild() 필요
+ */
+@Slf4j
+@Component
+public class CategoryTree {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile CategorySnapshot snapshot = CategorySnapshot.EMPTY;
+
+    public CategoryTree(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public CategorySnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 시작 시 스냅샷 생성
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<Long, Long> parents = new HashMap<>();
+        jdbcTemplate.query("SELECT category_id, parent_id FROM category", rs -> {
+            long parentId = rs.getLong(2);
+            parents.put(rs.getLong(1), rs.wasNull() ? null : parentId);
+        });
+
+        Map<Long, List<Long>> items = new HashMap<>();
+        jdbcTemplate.query("SELECT catergory_id, item_id FROM category_item ORDER BY catergory_id, item_id", rs -> {
+            items.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getLong(2));
+        });
+
+        CategorySnapshot rebuilt = CategorySnapshot.build(parents, items);
+        if(rebuilt.size() < parents.size()) {
+            log.warn("루트에서 닿을 수 없는 카테고리가 있습니다 (parent_id 순환). 제외된 카테고리 {}개", parents.size() - rebuilt.size());
+        }
+
+        snapshot = rebuilt;
+        log.info("카테고리 트리 생성 : 카테고리 {}개", rebuilt.size());
+    }
+
+    /**
+     * 카테고리 추가, 이동, 상품 등록 : 커밋되면 스냅샷을 다시 만듦 (트랜잭션이 없으면 바로)
+     *  - 한 트랜잭션에서 여러 번 변경해도 커밋 후 한 번만 다시 만듦
+     */
+    public void rebuildAfterCommit() {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuild();
+            return;
+        }
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if(synchronization instanceof RebuildAfterCommit) {
+                return;
+            }
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new RebuildAfterCommit());
+    }
+
+    private class RebuildAfterCommit implements TransactionSynchronization {
+        @Override
+        public void afterCommit() {
+            rebuild();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package jpabook.jpashop.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 상품 부분 수정 내용 (ItemRepository.patch)
+ *  - null인 항목은 변경하지 않음
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemPatch {
+
+    private String name; // 상품명
+    private Integer price; // 가격
+    private Integer stockQuantity; // 재고 수량
+
+    public boolean isEmpty() {
+        return name == null && price == null && stockQuantity == null;
+    }
+}
@@ -2,9 +2,20 @@ package jpabook.jpashop.repository;
 
 import jakarta.persistence.EntityManager;
 import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.exception.NotEnoughStockException;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.FlushMode;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,10 +31,127 @@ public class ItemRepository {
         }
     }
 
+    /**
+     * 상품 부분 수정 (조회 없이 UPDATE 1번)
+     *  - save()의 merge는 SELECT로 전체 컬럼을 읽은 후 값을 복사하고, 변경 감지로 다시 UPDATE (2번)
+     *  - 변경할 항목만 SET 절에 넣어서 바로 UPDATE (항목 조합마다 SQL이 다르지만 최대 7가지)
+     *  - version 증가 (그 사이 엔티티로 수정한 트랜잭션은 낙관적 락 충돌)
+     *  - 💡 벌크 연산이므로 이미 조회한 엔티티에는 반영되지 않음, 2차 캐시는 이 상품만 잠금 (nativeUpdate)
+     *  - 수정된 행 수 반환 (0이면 없는 상품, 변경할 항목이 없으면 UPDATE 하지 않고 -1)
+     */
+    public int patch(Long itemId, ItemPatch changes) {
+        if(changes.isEmpty()) {
+            return -1;
+        }
+
+        List<String> assignments = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        if(changes.getName() != null) {
+            assignments.add("name = ?");
+            values.add(changes.getName());
+        }
+        if(changes.getPrice() != null) {
+            assignments.add("price = ?");
+            values.add(changes.getPrice());
+        }
+        if(changes.getStockQuantity() != null) {
+            assignments.add("stock_quantity = ?");
+            values.add(changes.getStockQuantity());
+        }
+        values.add(itemId);
+
+        return nativeUpdate("UPDATE item SET " + String.join(", ", assignments) + ", version = version + 1 WHERE item_id = ?",
+                itemId, values.toArray());
+    }
+
     public Item findOne(Long id) {
         return em.find(Item.class, id);
     }
 
+    /**
+     * 재고 차감 (조건부 UPDATE)
+     *  - 엔티티를 읽고 -> 빼고 -> 쓰는 방식(Item.removeStock)은 동시에 주문하면 같은 재고를 읽어서 초과 판매 발생
+     *  - UPDATE ... SET 재고 = 재고 - 수량 WHERE 재고 >= 수량 : DB가 행 단위로 원자적으로 처리하므로 초과 판매 불가
+     *  - 수정된 행이 없으면 재고 부족
+     *  - 💡 벌크 연산은 영속성 컨텍스트를 거치지 않으므로, 이미 조회한 엔티티(item)의 재고, version은 UPDATE 전 값
+     *    (같은 영속성 컨텍스트에서 이 상품을 다시 수정하면 낙관적 락 충돌, 재고가 필요하면 새 영속성 컨텍스트에서 조회)
+     */
+    public void removeStock(Item item, int quantity) {
+        int updated = nativeUpdate("UPDATE item SET stock_quantity = stock_quantity - ?, version = version + 1 "
+                        + "WHERE item_id = ? AND stock_quantity >= ?",
+                item.getId(), quantity, item.getId(), quantity);
+
+        if(updated == 0) {
+            throw new NotEnoughStockException("Need More Stock");
+        }
+    }
+
+    /**
+     * 상품 1개를 변경하는 Native SQL
+     *  - JPQL 벌크 연산(UPDATE VERSIONED Item)은 Hibernate가 2차 캐시 item region 전체를 제거 -> 주문마다 다른 상품의 캐시까지 사라짐
+     *  - Native SQL은 동기화할 query space가 없으면 모든 region을 제거하므로, 테이블이 아닌 빈 query space("")를 지정
+     *  - 대신 변경한 상품의 캐시 항목만 트랜잭션이 끝날 때까지 잠금 (READ_WRITE가 엔티티 수정 시 하는 것과 같음)
+     *    잠긴 동안은 모든 트랜잭션이 DB에서 조회, 잠금 해제 전에 시작한 트랜잭션이 읽은 이전 값은 캐시에 넣지 않음
+     *  - 💡 단순 제거(evict)는 커밋 전에 이전 값을 읽은 트랜잭션이 제거 후에 다시 넣을 수 있음
+     */
+    private int nativeUpdate(String sql, Long itemId, Object... parameters) {
+        NativeQuery<?> query = em.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("")
+                .setHibernateFlushMode(FlushMode.ALWAYS); // query space가 없으면 자동 flush도 하지 않으므로 직접 (같은 트랜잭션에서 저장한 상품)
+
+        for (int i = 0; i < parameters.length; i++) {
+            query.setParameter(i + 1, parameters[i]);
+        }
+
+        Runnable unlock = lockCacheItem(itemId);
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                return query.executeUpdate();
+            } finally {
+                unlock.run();
+            }
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unlock.run();
+            }
+        });
+        return query.executeUpdate();
+    }
+
+    /**
+     * 2차 캐시의 상품 항목 잠금, 반환한 Runnable로 해제 (2차 캐시를 사용하지 않으면 아무것도 하지 않음)
+     */
+    private Runnable lockCacheItem(Long itemId) {
+        SharedSessionContractImplementor session = em.unwrap(SharedSessionContractImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Item.class);
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+
+        if(cacheAccess == null) {
+            return () -> {};
+        }
+
+        Object cacheKey = cacheAccess.generateCacheKey(itemId, persister, session.getFactory(), session.getTenantIdentifier());
+        SoftLock lock = cacheAccess.lockItem(session, cacheKey, null);
+        return () -> cacheAccess.unlockItem(session, cacheKey, lock);
+    }
+
+    public List<Item> findAllById(Collection<Long> ids) {
+        return em.createQuery("SELECT i FROM Item i WHERE i.id IN :ids", Item.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * 조회 없이 프록시만 반환 (FK 설정용)
+     */
+    public Item getReference(Long id) {
+        return em.getReference(Item.class, id);
+    }
+
     public List<Item> findAll() {
         return em.createQuery("SELECT i FROM Item i", Item.class)
                 .getResultList();
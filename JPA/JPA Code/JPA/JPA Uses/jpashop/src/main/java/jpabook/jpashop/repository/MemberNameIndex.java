@@ -0,0 +1,133 @@
+package jpabook.jpashop.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 회원 이름 역색인 (trigram)
+ *  - LIKE '%검색어%'는 B-Tree 인덱스를 사용할 수 없으므로, 회원 수에 비례해서 느려짐
+ *  - 이름을 3글자 단위(trigram)로 잘라서 trigram -> 회원 id 목록을 메모리에 보관
+ *  - 검색어의 trigram을 모두 포함하는 회원만 후보로 뽑고, 실제로 검색어를 포함하는지 한 번 더 확인 (LIKE와 같은 결과)
+ *  - 불변 스냅샷(MemberNameSnapshot)을 만들고 참조만 교체 (CategoryTree와 동일) : 다시 만드는 중에도 조회는 락 없이 완성된 스냅샷 하나만 봄
+ *
+ * 인덱스를 사용할 수 없는 경우 (Optional.empty() -> 호출하는 쪽에서 LIKE로 검색)
+ *  - 시작 후 인덱스를 만들기 전 (cold)
+ *  - 검색어가 3글자 미만 (trigram이 없음)
+ *  - 검색어에 LIKE 특수 문자(%, _, \)가 있음 (LIKE는 와일드카드 / 이스케이프로 해석하므로 contains와 결과가 다름)
+ *  - 후보가 너무 많음 (max-ids 초과, IN 절이 너무 길어지면 LIKE가 나음)
+ *
+ * 💡 MemberService(join, update)를 거치지 않고 회원을 변경하면 rebuild() 필요
+ */
+@Slf4j
+@Component
+public class MemberNameIndex {
+
+    static final int GRAM = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int maxIds;
+
+    private volatile MemberNameSnapshot snapshot; // null : 인덱스 생성 전 (cold)
+
+    public MemberNameIndex(JdbcTemplate jdbcTemplate,
+                           @Value("${jpashop.search.member-name-index.enabled:true}") boolean enabled,
+                           @Value("${jpashop.search.member-name-index.max-ids:500}") int maxIds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * 시작 시 전체 회원으로 인덱스 생성
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if(!enabled) {
+            return;
+        }
+
+        Map<Long, String> members = new HashMap<>();
+        jdbcTemplate.query("SELECT member_id, name FROM member", rs -> {
+            members.put(rs.getLong(1), rs.getString(2));
+        });
+
+        rebuild(members);
+    }
+
+    synchronized void rebuild(Map<Long, String> members) {
+        MemberNameSnapshot rebuilt = MemberNameSnapshot.build(members);
+
+        snapshot = rebuilt;
+        log.info("회원 이름 인덱스 생성 : 회원 {}명, trigram {}개", rebuilt.memberCount(), rebuilt.trigramCount());
+    }
+
+    /**
+     * 회원 가입, 이름 수정 : 커밋되면 인덱스에 반영 (트랜잭션이 없으면 바로 반영)
+     */
+    public void putAfterCommit(Long memberId, String name) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(memberId, name);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(memberId, name);
+            }
+        });
+    }
+
+    /**
+     * 💡 쓰기끼리만 synchronized (현재 스냅샷에 반영한 새 스냅샷으로 교체), 인덱스 생성 전에는 무시 (생성 시 DB에서 읽음)
+     */
+    synchronized void put(Long memberId, String name) {
+        MemberNameSnapshot current = snapshot;
+
+        if(current != null) {
+            snapshot = current.with(memberId, name);
+        }
+    }
+
+    /**
+     * 이름에 검색어가 포함된 회원 id
+     */
+    public Optional<Set<Long>> findMemberIds(String keyword) {
+        MemberNameSnapshot current = snapshot; // 한 번만 읽음 (조회 도중 교체되어도 같은 스냅샷 사용)
+
+        if(current == null || keyword == null || keyword.length() < GRAM || hasLikeWildcard(keyword)) {
+            return Optional.empty();
+        }
+
+        return current.find(keyword, maxIds);
+    }
+
+    private static boolean hasLikeWildcard(String keyword) {
+        return keyword.indexOf('%') >= 0 || keyword.indexOf('_') >= 0 || keyword.indexOf('\\') >= 0;
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,128 @@
+package jpabook.jpashop.repository;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 회원 이름 역색인 스냅샷 (불변, MemberNameIndex)
+ *  - base : 인덱스를 만들 때의 회원 이름과 trigram -> 회원 id (정렬된 배열)
+ *  - changes : 그 이후 가입 / 이름 수정된 회원 (회원 id -> 이름, 탈퇴는 null)
+ *  - 회원 1명이 바뀔 때마다 전체를 복사하지 않고 changes만 복사, COMPACT_THRESHOLD건이 넘으면 base를 다시 만듦
+ *
+ * 조회 : base의 후보 중 changes에 있는 회원은 제외하고, changes는 이름을 직접 확인 (최대 COMPACT_THRESHOLD건)
+ */
+final class MemberNameSnapshot {
+
+    static final int COMPACT_THRESHOLD = 256;
+
+    private static final long[] NO_IDS = new long[0];
+
+    private final Map<String, long[]> postings; // trigram -> 회원 id (오름차순)
+    private final Map<Long, String> names; // 회원 id -> 이름 (base)
+    private final Map<Long, String> changes; // base 이후 변경 (이름이 null이면 삭제)
+
+    private MemberNameSnapshot(Map<String, long[]> postings, Map<Long, String> names, Map<Long, String> changes) {
+        this.postings = postings;
+        this.names = names;
+        this.changes = changes;
+    }
+
+    /**
+     * @param members 회원 id -> 이름
+     */
+    static MemberNameSnapshot build(Map<Long, String> members) {
+        Map<String, Set<Long>> grams = new HashMap<>();
+        Map<Long, String> names = new HashMap<>();
+
+        members.forEach((memberId, name) -> {
+            if(name == null) {
+                return;
+            }
+
+            names.put(memberId, name);
+            for (String gram : MemberNameIndex.trigrams(name)) {
+                grams.computeIfAbsent(gram, g -> new HashSet<>()).add(memberId);
+            }
+        });
+
+        Map<String, long[]> postings = new HashMap<>(grams.size() * 4 / 3 + 1);
+        grams.forEach((gram, ids) -> {
+            long[] sorted = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+            postings.put(gram, sorted);
+        });
+
+        return new MemberNameSnapshot(Collections.unmodifiableMap(postings), Collections.unmodifiableMap(names), Map.of());
+    }
+
+    /**
+     * 회원 1명을 반영한 새 스냅샷 (name이 null이면 삭제)
+     */
+    MemberNameSnapshot with(Long memberId, String name) {
+        Map<Long, String> nextChanges = new HashMap<>(changes);
+        nextChanges.put(memberId, name);
+
+        if(nextChanges.size() > COMPACT_THRESHOLD) {
+            Map<Long, String> merged = new HashMap<>(names);
+            nextChanges.forEach(merged::put);
+            return build(merged);
+        }
+
+        return new MemberNameSnapshot(postings, names, Collections.unmodifiableMap(nextChanges));
+    }
+
+    /**
+     * 이름에 keyword(trigram 1개 이상)가 포함된 회원 id, maxIds 초과면 Optional.empty()
+     */
+    Optional<Set<Long>> find(String keyword, int maxIds) {
+        // 검색어의 trigram 중 회원이 가장 적은 trigram의 회원만 후보 (모든 trigram을 포함해야 하므로)
+        long[] candidates = null;
+        for (String gram : MemberNameIndex.trigrams(keyword)) {
+            long[] ids = postings.getOrDefault(gram, NO_IDS);
+
+            if(candidates == null || ids.length < candidates.length) {
+                candidates = ids;
+            }
+        }
+
+        Set<Long> result = new HashSet<>();
+        for (long memberId : candidates) {
+            if(changes.containsKey(memberId)) {
+                continue; // 바뀐 이름으로 아래에서 확인
+            }
+
+            if(names.get(memberId).contains(keyword) && add(result, memberId, maxIds)) { // 실제로 검색어를 포함하는지 확인
+                return Optional.empty();
+            }
+        }
+
+        for (Map.Entry<Long, String> change : changes.entrySet()) {
+            String name = change.getValue();
+
+            if(name != null && name.contains(keyword) && add(result, change.getKey(), maxIds)) {
+                return Optional.empty();
+            }
+        }
+
+        return Optional.of(result);
+    }
+
+    /**
+     * @return maxIds 초과 여부
+     */
+    private static boolean add(Set<Long> result, Long memberId, int maxIds) {
+        result.add(memberId);
+        return result.size() > maxIds;
+    }
+
+    int memberCount() {
+        return names.size();
+    }
+
+    int trigramCount() {
+        return postings.size();
+    }
+}
@@ -1,44 +1,99 @@
 package jpabook.jpashop.repository;
 
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
 import jpabook.jpashop.domain.*;
 import jpabook.jpashop.domain.Order;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.query.sqm.tree.select.SqmSelectStatement;
 import org.springframework.stereotype.Repository;
-import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 @Repository
 public class OrderRepository {
+    private static final int SEARCH_LIMIT = 1000; // 검색 최대 1000건
+
+    // Querydsl 검색 파라미터 (값은 실행할 때 바인딩)
+    private static final Param<OrderStatus> STATUS_PARAM = new Param<>(OrderStatus.class, "status");
+    private static final Param<String> NAME_PARAM = new Param<>(String.class, "name");
+    private static final Param<Collection> MEMBER_IDS_PARAM = new Param<>(Collection.class, "memberIds");
+
     private final EntityManager em;
-    private final JPAQueryFactory query
+    private final JPAQueryFactory query;
+    private final MemberNameIndex memberNameIndex;
+
+    // 검색 쿼리 캐시 : 모양(OrderSearchShape)별로 한 번만 만듦
+    private final Set<String> registeredSearchQueries = ConcurrentHashMap.newKeySet(); // JPQL, Criteria : Named Query로 등록한 이름
+    private final Map<OrderSearchShape, JPAQuery<Order>> querydslSearchTemplates = new EnumMap<>(OrderSearchShape.class);
 
-    public OrderRepository(EntityManager em) {
+    public OrderRepository(EntityManager em, MemberNameIndex memberNameIndex) {
         this.em = em;
         this.query = new JPAQueryFactory(em);
+        this.memberNameIndex = memberNameIndex;
+
+        for (OrderSearchShape shape : OrderSearchShape.values()) {
+            querydslSearchTemplates.put(shape, querydslSearchTemplate(shape));
+        }
     }
 
     public void save(Order order) {
         em.persist(order);
     }
 
+    /**
+     * 대량 저장 시 쌓인 INSERT를 전송하고 영속성 컨텍스트를 비움 (메모리 사용량 유지)
+     */
+    public void flushAndClear() {
+        em.flush();
+        em.clear();
+    }
+
     public Order findOne(Long id) {
         return em.find(Order.class, id);
     }
 
+    /**
+     * 문자열 JPQL
+     *  - 검색 조건의 모양별로 JPQL을 한 번만 만들어서 Named Query로 등록 (이후에는 문자열 조립, 파싱 없음)
+     */
     public List<Order> findAllByString(OrderSearch orderSearch) {
+        OrderSearchShape shape = OrderSearchShape.of(orderSearch);
+        TypedQuery<Order> query = namedSearchQuery("jpql", shape, () -> em.createQuery(searchJpql(shape)))
+                .setMaxResults(SEARCH_LIMIT);
+
+        if(shape.hasStatus()) {
+            query.setParameter("status", orderSearch.getOrderStatus());
+        }
+
+        if(shape.hasName()) {
+            query.setParameter("name", orderSearch.getMemberName());
+        }
+
+        return query.getResultList();
+    }
+
+    private static String searchJpql(OrderSearchShape shape) {
         String jpql = "SELECT o FROM Order o JOIN o.member m";
 
         boolean isFirstCondition = true;
 
         // 주문 상태 검색
-        if(orderSearch.getOrderStatus() != null) {
+        if(shape.hasStatus()) {
             if(isFirstCondition) {
                 jpql += " WHERE";
                 isFirstCondition = false;
@@ -49,7 +104,7 @@ public class OrderRepository {
         }
 
         // 회원 이름 검색
-        if (StringUtils.hasText(orderSearch.getMemberName())) {
+        if(shape.hasName()) {
             if(isFirstCondition) {
                 jpql += " WHERE";
                 isFirstCondition = false;
@@ -59,24 +114,44 @@ public class OrderRepository {
             jpql += " m.name LIKE :name";
         }
 
-        TypedQuery<Order> query = em.createQuery(jpql, Order.class)
-                                .setMaxResults(1000);
+        return jpql;
+    }
+
+    /**
+     * JPA Criteria
+     *  - 검색 조건의 모양별로 CriteriaQuery를 한 번만 만들어서 Named Query로 등록 (값은 ParameterExpression으로 바인딩)
+     *  - 💡 Hibernate 6는 Criteria 쿼리의 SQL 변환 결과를 캐시하지 않으므로, JPQL(HQL)로 변환해서 등록 (쿼리 계획 캐시 사용)
+     *  - 회원 이름은 회원 이름 인덱스로 찾은 회원 id로 검색 (인덱스를 사용할 수 없으면 LIKE)
+     */
+    public List<Order> findAllByCriteria(OrderSearch orderSearch) {
+        OrderSearchShape shape = OrderSearchShape.of(orderSearch);
+
+        Set<Long> memberIds = findMemberIdsByName(shape, orderSearch);
+        if(memberIds != null) {
+            if(memberIds.isEmpty()) {
+                return List.of(); // 이름이 일치하는 회원이 없음
+            }
+            shape = shape.withMemberIds();
+        }
+
+        OrderSearchShape criteriaShape = shape;
+        TypedQuery<Order> query = namedSearchQuery("criteria", shape, () -> em.createQuery(((SqmSelectStatement<Order>) searchCriteria(criteriaShape)).toHqlString()))
+                .setMaxResults(SEARCH_LIMIT);
 
-        if(orderSearch.getOrderStatus() != null) {
-            query = query.setParameter("status", orderSearch.getOrderStatus());
+        if(shape.hasStatus()) {
+            query.setParameter("status", orderSearch.getOrderStatus());
         }
 
-        if(StringUtils.hasText(orderSearch.getMemberName())) {
-            query = query.setParameter("name", orderSearch.getMemberName());
+        if(shape.usesMemberIds()) {
+            query.setParameter("memberIds", memberIds);
+        } else if(shape.hasName()) {
+            query.setParameter("name", "%" + orderSearch.getMemberName() + "%");
         }
 
         return query.getResultList();
     }
 
-    /**
-     * JPA Criteria
-     */
-    public List<Order> findAllByCriteria(OrderSearch orderSearch) {
+    private CriteriaQuery<Order> searchCriteria(OrderSearchShape shape) {
         CriteriaBuilder cb = em.getCriteriaBuilder();
         CriteriaQuery<Order> cq = cb.createQuery(Order.class);
         Root<Order> o = cq.from(Order.class);
@@ -86,21 +161,53 @@ public class OrderRepository {
         List<Predicate> criteria = new ArrayList<>();
 
         // 주문 상세 검색
-        if(orderSearch.getOrderStatus() != null) {
-            Predicate status = cb.equal(o.get("status"), orderSearch.getOrderStatus());
+        if(shape.hasStatus()) {
+            Predicate status = cb.equal(o.get("status"), cb.parameter(OrderStatus.class, "status"));
             criteria.add(status);
         }
 
         // 회원 이름 검색
-        if(StringUtils.hasText(orderSearch.getMemberName())) {
-            Predicate name = cb.like(m.<String>get("name"), "%" + orderSearch.getMemberName() + "%");
+        if(shape.usesMemberIds()) {
+            Predicate memberIds = m.get("id").in(cb.parameter(Collection.class, "memberIds"));
+            criteria.add(memberIds);
+        } else if(shape.hasName()) {
+            Predicate name = cb.like(m.<String>get("name"), cb.parameter(String.class, "name"));
             criteria.add(name);
         }
 
-        cq.where(cb.and(criteria.toArray(new Predicate[criteria.size()])));
-        TypedQuery<Order> query = em.createQuery(cq).setMaxResults(1000);// 최대 1000건
+        cq.select(o).where(cb.and(criteria.toArray(new Predicate[criteria.size()])));
 
-        return query.getResultList();
+        return cq;
+    }
+
+    /**
+     * 회원 이름 인덱스로 찾은 회원 id (이름 조건이 없거나, 인덱스를 사용할 수 없으면 null -> LIKE)
+     */
+    private Set<Long> findMemberIdsByName(OrderSearchShape shape, OrderSearch orderSearch) {
+        if(!shape.hasName()) {
+            return null;
+        }
+
+        return memberNameIndex.findMemberIds(orderSearch.getMemberName()).orElse(null);
+    }
+
+    /**
+     * 모양별 Named Query (처음 한 번만 등록)
+     *  - 💡 등록한 쿼리는 EntityManagerFactory에 보관되고, createNamedQuery는 이미 해석된 쿼리를 재사용 (Hibernate 쿼리 계획 캐시)
+     */
+    private TypedQuery<Order> namedSearchQuery(String style, OrderSearchShape shape, Supplier<Query> compiler) {
+        String name = "Order.search." + style + "." + shape;
+
+        if(!registeredSearchQueries.contains(name)) {
+            synchronized (registeredSearchQueries) {
+                if(!registeredSearchQueries.contains(name)) {
+                    em.getEntityManagerFactory().addNamedQuery(name, compiler.get());
+                    registeredSearchQueries.add(name);
+                }
+            }
+        }
+
+        return em.createNamedQuery(name, Order.class);
     }
 
     public List<Order> findAllWithMemberDelivery() {
@@ -129,31 +236,93 @@ public class OrderRepository {
                 .getResultList();
     }
 
+    /**
+     * Keyset(Seek) 페이징
+     *  - OFFSET 대신 마지막으로 조회한 o.id 이후부터 조회 (WHERE o.id > :lastOrderId ORDER BY o.id)
+     *  - PK 인덱스를 타고 바로 시작 지점을 찾으므로, 몇 번째 페이지든 조회 비용이 동일
+     *  - lastOrderId가 null이면 첫 페이지
+     */
+    public List<Order> findAllWithMemberDelivery(Long lastOrderId, int limit) {
+        String jpql = "SELECT o FROM Order o "
+                + "JOIN FETCH o.member m "
+                + "JOIN FETCH o.delivery d ";
+
+        // 💡 (:lastOrderId IS NULL OR ...) 형태는 인덱스를 못 탈 수 있으므로, 조건 자체를 분기
+        if(lastOrderId != null) {
+            jpql += "WHERE o.id > :lastOrderId ";
+        }
+        jpql += "ORDER BY o.id";
+
+        TypedQuery<Order> query = em.createQuery(jpql, Order.class)
+                .setMaxResults(limit);
+
+        if(lastOrderId != null) {
+            query.setParameter("lastOrderId", lastOrderId);
+        }
+
+        return query.getResultList();
+    }
+
+    /**
+     * Querydsl
+     *  - 검색 조건의 모양별로 쿼리(템플릿)를 한 번만 만들고, 실행할 때는 복사(clone)해서 값만 바인딩
+     *  - 모양이 같으면 JPQL 문자열도 같으므로, Hibernate 쿼리 계획 캐시에서 재사용
+     *  - 회원 이름은 회원 이름 인덱스로 찾은 회원 id로 검색 (인덱스를 사용할 수 없으면 LIKE)
+     */
     public List<Order> findAll(OrderSearch orderSearch) {
+        OrderSearchShape shape = OrderSearchShape.of(orderSearch);
+
+        Set<Long> memberIds = findMemberIdsByName(shape, orderSearch);
+        if(memberIds != null) {
+            if(memberIds.isEmpty()) {
+                return List.of(); // 이름이 일치하는 회원이 없음
+            }
+            shape = shape.withMemberIds();
+        }
+
+        JPAQuery<Order> query = querydslSearchTemplates.get(shape).clone(em);
+
+        if(shape.hasStatus()) {
+            query.set(STATUS_PARAM, orderSearch.getOrderStatus());
+        }
+
+        if(shape.usesMemberIds()) {
+            query.set(MEMBER_IDS_PARAM, memberIds);
+        } else if(shape.hasName()) {
+            query.set(NAME_PARAM, "%" + orderSearch.getMemberName() + "%"); // 💡 Hibernate 6 오류 (주의) : % + 검색어 + % 첨가 필요
+        }
+
+        return query.fetch();
+    }
+
+    private JPAQuery<Order> querydslSearchTemplate(OrderSearchShape shape) {
         QOrder order = QOrder.order; // static import 가능
         QMember member = QMember.member; // static import 가능
 
         return query.select(order)
                      .from(order)
                      .join(order.member, member)
-                     .where(statusEq(orderSearch.getOrderStatus()), nameLike(orderSearch.getMemberName()))
-                     .limit(1000)
-                     .fetch();
+                     .where(statusEq(shape), nameLike(shape))
+                     .limit(SEARCH_LIMIT);
     }
 
-    private BooleanExpression nameLike(String memberName) {
-        if(!StringUtils.hasText(memberName)) {
+    private BooleanExpression nameLike(OrderSearchShape shape) {
+        if(!shape.hasName()) {
             return null;
         }
 
-        return QMember.member.name.like("%" + memberName + "%"); // 💡 Hibernate 6 오류 (주의) : % + 검색어 + % 첨가 필요
+        if(shape.usesMemberIds()) {
+            return Expressions.booleanTemplate("{0} in {1}", QMember.member.id, MEMBER_IDS_PARAM);
+        }
+
+        return QMember.member.name.like(NAME_PARAM);
     }
 
-    private BooleanExpression statusEq(OrderStatus statusCond) {
-        if(statusCond == null) {
+    private BooleanExpression statusEq(OrderSearchShape shape) {
+        if(!shape.hasStatus()) {
             return null;
         }
 
-        return QOrder.order.status.eq(statusCond);
+        return QOrder.order.status.eq(STATUS_PARAM);
     }
 }
@@ -0,0 +1,60 @@
+package jpabook.jpashop.repository;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * 주문 검색 쿼리의 모양 (어떤 검색 조건이 있는지, 값은 제외)
+ *  - 모양이 같으면 JPQL도 같으므로, 모양별로 한 번만 만들고 값은 파라미터로만 바인딩
+ *  - 회원 이름 조건 : LIKE 또는 회원 이름 인덱스(MemberNameIndex)로 찾은 회원 id IN 절
+ */
+public enum OrderSearchShape {
+    ALL(false, false, false),
+    STATUS(true, false, false),
+    NAME(false, true, false),
+    STATUS_NAME(true, true, false),
+    MEMBER_IDS(false, true, true),
+    STATUS_MEMBER_IDS(true, true, true);
+
+    private final boolean hasStatus;
+    private final boolean hasName;
+    private final boolean usesMemberIds;
+
+    OrderSearchShape(boolean hasStatus, boolean hasName, boolean usesMemberIds) {
+        this.hasStatus = hasStatus;
+        this.hasName = hasName;
+        this.usesMemberIds = usesMemberIds;
+    }
+
+    /**
+     * 회원 이름 조건은 LIKE
+     */
+    public static OrderSearchShape of(OrderSearch orderSearch) {
+        boolean hasStatus = orderSearch.getOrderStatus() != null;
+        boolean hasName = StringUtils.hasText(orderSearch.getMemberName());
+
+        return hasStatus ? (hasName ? STATUS_NAME : STATUS) : (hasName ? NAME : ALL);
+    }
+
+    /**
+     * 회원 이름 조건을 회원 id IN 절로 변경 (이름 조건이 없으면 그대로)
+     */
+    public OrderSearchShape withMemberIds() {
+        if(!hasName) {
+            return this;
+        }
+
+        return hasStatus ? STATUS_MEMBER_IDS : MEMBER_IDS;
+    }
+
+    public boolean hasStatus() {
+        return hasStatus;
+    }
+
+    public boolean hasName() {
+        return hasName;
+    }
+
+    public boolean usesMemberIds() {
+        return usesMemberIds;
+    }
+}
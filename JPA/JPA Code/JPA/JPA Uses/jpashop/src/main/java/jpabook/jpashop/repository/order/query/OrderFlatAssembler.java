@@ -0,0 +1,51 @@
+package jpabook.jpashop.repository.order.query;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 플랫 데이터(OrderFlatDto) -> OrderQueryDto 변환
+ *  - 💡 입력은 반드시 o.id 순으로 정렬되어 있어야 함 (같은 주문의 행이 연속으로 나옴)
+ *  - 연속된 행을 하나의 주문으로 접어서 한 번만 순회 (groupingBy처럼 Map, 임시 key 객체 불필요)
+ *  - SQL 정렬 순서 유지
+ *  - 주문(부모) 기준 offset / limit 지원 : limit개를 채우면 나머지 행은 읽지 않음
+ */
+public final class OrderFlatAssembler {
+
+    private OrderFlatAssembler() {
+    }
+
+    public static List<OrderQueryDto> assemble(Iterator<OrderFlatDto> rows, int offset, int limit) {
+        List<OrderQueryDto> result = new ArrayList<>();
+
+        Long currentOrderId = null;
+        OrderQueryDto current = null; // offset 이전 주문이면 null (건너뜀)
+        int parentIndex = -1; // 지금까지 만난 주문 수 - 1
+
+        while(rows.hasNext()) {
+            OrderFlatDto row = rows.next();
+
+            if(!row.getOrderId().equals(currentOrderId)) { // 새로운 주문 시작
+                currentOrderId = row.getOrderId();
+                parentIndex++;
+
+                if(parentIndex >= (long) offset + limit) { // limit개를 모두 채움
+                    break;
+                }
+
+                current = null;
+                if(parentIndex >= offset) {
+                    current = new OrderQueryDto(row.getOrderId(), row.getName(), row.getOrderDate(), row.getOrderStatus(), row.getAddress(), new ArrayList<>());
+                    result.add(current);
+                }
+            }
+
+            if(current != null) {
+                current.getOrderItems().add(new OrderItemQueryDto(row.getOrderId(), row.getItemName(), row.getOrderPrice(), row.getCount()));
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+package jpabook.jpashop.repository.order.query;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 플랫 데이터(JDBC 행) -> JSON 바로 쓰기 (OrderQueryDto 배열과 같은 JSON)
+ *  - OrderFlatAssembler처럼 연속된 행을 하나의 주문으로 접지만, DTO를 만들지 않고 JsonGenerator에 바로 씀
+ *  - OrderFlatDto / OrderQueryDto / OrderItemQueryDto, List 할당 없음, Jackson의 리플렉션(getter 탐색) 없음
+ *  - 💡 입력은 반드시 o.order_id 순으로 정렬되어 있어야 함 (OrderQueryRepository.streamAllByFlatRows)
+ *
+ * 사용 : start() -> 행마다 processRow() -> finish()
+ */
+public class OrderFlatJsonWriter implements RowCallbackHandler {
+
+    private final JsonGenerator generator;
+
+    private long currentOrderId;
+    private boolean inOrder = false; // 주문 객체를 쓰는 중인지
+
+    public OrderFlatJsonWriter(JsonGenerator generator) {
+        this.generator = generator;
+    }
+
+    public void start() throws IOException {
+        generator.writeStartArray();
+    }
+
+    /**
+     * 행 순서 : order_id, 회원 이름, order_date, status, city, street, zipcode, 상품명, order_price, count
+     */
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        try {
+            long orderId = rs.getLong(1);
+
+            if(!inOrder || orderId != currentOrderId) { // 새로운 주문 시작
+                if(inOrder) {
+                    endOrder();
+                }
+
+                currentOrderId = orderId;
+                inOrder = true;
+
+                generator.writeStartObject();
+                generator.writeNumberField("orderId", orderId);
+                generator.writeStringField("name", rs.getString(2));
+                writeOrderDate(rs.getObject(3, LocalDateTime.class));
+                generator.writeStringField("orderStatus", rs.getString(4));
+
+                generator.writeObjectFieldStart("address");
+                generator.writeStringField("city", rs.getString(5));
+                generator.writeStringField("street", rs.getString(6));
+                generator.writeStringField("zipcode", rs.getString(7));
+                generator.writeEndObject();
+
+                generator.writeArrayFieldStart("orderItems");
+            }
+
+            generator.writeStartObject();
+            generator.writeNumberField("orderId", orderId);
+            generator.writeStringField("itemName", rs.getString(8));
+            generator.writeNumberField("orderPrice", rs.getInt(9));
+            generator.writeNumberField("count", rs.getInt(10));
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void finish() throws IOException {
+        if(inOrder) {
+            endOrder();
+        }
+
+        generator.writeEndArray();
+    }
+
+    private void endOrder() throws IOException {
+        generator.writeEndArray(); // orderItems
+        generator.writeEndObject();
+    }
+
+    /**
+     * Jackson(JavaTimeModule)의 LocalDateTime 기본 형식과 동일 (ISO-8601)
+     */
+    private void writeOrderDate(LocalDateTime orderDate) throws IOException {
+        if(orderDate == null) {
+            generator.writeNullField("orderDate");
+            return;
+        }
+
+        generator.writeStringField("orderDate", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(orderDate));
+    }
+}
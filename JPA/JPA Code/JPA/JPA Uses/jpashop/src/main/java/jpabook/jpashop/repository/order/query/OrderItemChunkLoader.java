@@ -0,0 +1,142 @@
+package jpabook.jpashop.repository.order.query;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * orderItem 컬렉션을 IN 절 chunk 단위로 나누어 조회
+ *  - 주문 id 전체를 IN 절 하나에 넣으면 SQL이 너무 길어지고, DB 파라미터 개수 제한에 걸림
+ *  - 또한 IN 절 파라미터 개수가 매번 달라지면, 매번 다른 SQL이 되어 Prepared Statement / 실행 계획 캐시를 재사용하지 못함
+ *  - 따라서, 파라미터 개수를 고정된 크기(16 / 64 / 256)로 맞추어 조회 (부족한 자리는 마지막 id로 채움)
+ *  - 💡 hibernate.query.in_clause_parameter_padding은 2의 거듭제곱으로만 채우고 크기 제한이 없으므로 이 chunk를 대신하지 않음
+ *    (CHUNK_SIZES는 모두 2의 거듭제곱이어야 Hibernate가 다시 채우지 않음 : SQL 3가지 유지)
+ *
+ * 병렬 조회 (jpashop.query.in-chunk.parallel=true)
+ *  - chunk마다 별도의 EntityManager(= 별도의 커넥션)로 동시에 조회한 후 합침
+ *  - 💡 별도의 커넥션이므로, 호출한 트랜잭션에서 아직 커밋하지 않은 데이터는 보이지 않음 (조회 전용 API에서만 사용)
+ */
+@Component
+public class OrderItemChunkLoader {
+
+    static final int[] CHUNK_SIZES = {16, 64, 256};
+
+    private static final String FIND_ORDER_ITEMS =
+            "SELECT new jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count) " +
+                    "FROM OrderItem oi " +
+                    "JOIN oi.item i " +
+                    "WHERE oi.order.id IN :orderIds";
+
+    private final EntityManager em;
+    private final EntityManagerFactory emf;
+    private final ExecutorService executor; // 병렬 조회를 사용하지 않으면 null
+
+    public OrderItemChunkLoader(EntityManager em,
+                                EntityManagerFactory emf,
+                                @Value("${jpashop.query.in-chunk.parallel:false}") boolean parallel,
+                                @Value("${jpashop.query.in-chunk.threads:4}") int threads) {
+        this.em = em;
+        this.emf = emf;
+        this.executor = parallel ? Executors.newFixedThreadPool(threads) : null;
+    }
+
+    public Map<Long, List<OrderItemQueryDto>> findOrderItemMap(List<Long> orderIds) {
+        List<List<Long>> chunks = chunk(orderIds);
+
+        List<OrderItemQueryDto> orderItems = (executor == null || chunks.size() <= 1)
+                ? findSequential(chunks)
+                : findParallel(chunks);
+
+        return orderItems.stream()
+                .collect(Collectors.groupingBy(OrderItemQueryDto::getOrderId));
+    }
+
+    private List<OrderItemQueryDto> findSequential(List<List<Long>> chunks) {
+        List<OrderItemQueryDto> result = new ArrayList<>();
+
+        for (List<Long> chunk : chunks) {
+            result.addAll(findOrderItems(em, chunk));
+        }
+
+        return result;
+    }
+
+    private List<OrderItemQueryDto> findParallel(List<List<Long>> chunks) {
+        List<CompletableFuture<List<OrderItemQueryDto>>> futures = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> {
+                    EntityManager chunkEm = emf.createEntityManager(); // chunk마다 별도의 커넥션 사용
+
+                    try {
+                        return findOrderItems(chunkEm, chunk);
+                    } finally {
+                        chunkEm.close();
+                    }
+                }, executor))
+                .collect(Collectors.toList());
+
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    private List<OrderItemQueryDto> findOrderItems(EntityManager em, List<Long> chunk) {
+        return em.createQuery(FIND_ORDER_ITEMS, OrderItemQueryDto.class)
+                .setParameter("orderIds", chunk)
+                .getResultList();
+    }
+
+    /**
+     * 최대 크기(256)로 나눈 후, 각 chunk를 가장 가까운 고정 크기로 채움
+     *  - 예) 300개 : [256개], [44개 + 채움 20개 = 64개]
+     */
+    static List<List<Long>> chunk(List<Long> orderIds) {
+        List<Long> distinctIds = orderIds.stream()
+                .distinct()
+                .collect(Collectors.toList());
+
+        int maxSize = CHUNK_SIZES[CHUNK_SIZES.length - 1];
+        List<List<Long>> chunks = new ArrayList<>();
+
+        for (int from = 0; from < distinctIds.size(); from += maxSize) {
+            List<Long> chunk = new ArrayList<>(distinctIds.subList(from, Math.min(from + maxSize, distinctIds.size())));
+
+            int paddedSize = paddedSize(chunk.size());
+            Long lastId = chunk.get(chunk.size() - 1);
+            while(chunk.size() < paddedSize) {
+                chunk.add(lastId); // IN 절에서 중복 값은 결과에 영향 없음
+            }
+
+            chunks.add(chunk);
+        }
+
+        return chunks;
+    }
+
+    private static int paddedSize(int size) {
+        for (int chunkSize : CHUNK_SIZES) {
+            if(size <= chunkSize) {
+                return chunkSize;
+            }
+        }
+
+        return CHUNK_SIZES[CHUNK_SIZES.length - 1];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if(executor != null) {
+            executor.shutdown();
+        }
+    }
+}
@@ -1,18 +1,29 @@
 package jpabook.jpashop.repository.order.query;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jpabook.jpashop.domain.Address;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 @RequiredArgsConstructor
 public class OrderQueryRepository {
 
     private final EntityManager em;
+    private final OrderItemChunkLoader orderItemChunkLoader;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
      * 컬렉션은 별도로 조회
@@ -52,23 +63,62 @@ public class OrderQueryRepository {
         return result;
     }
 
+    /**
+     * 스트리밍 조회 (전체 내보내기용)
+     *  - 루트는 getResultStream()으로 한 행씩 조회 (Hibernate 6 : 내부적으로 forward-only ScrollableResults)
+     *  - 컬렉션은 chunkSize 단위로 모아서 1번씩 조회 (V5와 동일한 IN 쿼리)
+     *  - chunk마다 consumer에 넘긴 후 버리고 영속성 컨텍스트를 비우므로, 전체 건수와 상관 없이 메모리 사용량 일정
+     *  - 💡 커넥션을 계속 사용하므로, 트랜잭션 안에서 호출해야 함
+     */
+    public void streamAllByDto(int chunkSize, Consumer<OrderQueryDto> consumer) {
+        try (Stream<OrderQueryDto> orders = em.createQuery(
+                        "SELECT new jpabook.jpashop.repository.order.query.OrderQueryDto(o.id, m.name, o.orderDate, o.status, d.address) " +
+                                "FROM Order o " +
+                                "JOIN o.member m " +
+                                "JOIN o.delivery d " +
+                                "ORDER BY o.id", OrderQueryDto.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, chunkSize) // JDBC 드라이버가 한 번에 가져올 행 수
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+
+            List<OrderQueryDto> chunk = new ArrayList<>(chunkSize);
+            orders.forEach(o -> {
+                chunk.add(o);
+
+                if(chunk.size() == chunkSize) {
+                    writeChunk(chunk, consumer);
+                }
+            });
+
+            if(!chunk.isEmpty()) {
+                writeChunk(chunk, consumer);
+            }
+        }
+    }
+
+    private void writeChunk(List<OrderQueryDto> chunk, Consumer<OrderQueryDto> consumer) {
+        Map<Long, List<OrderItemQueryDto>> orderItemMap = findOrderItemMap(toOrderIds(chunk));
+
+        for (OrderQueryDto o : chunk) {
+            o.setOrderItems(orderItemMap.getOrDefault(o.getOrderId(), List.of()));
+            consumer.accept(o);
+        }
+
+        chunk.clear();
+        em.clear(); // chunk 단위로 영속성 컨텍스트 초기화
+    }
+
     private List<Long> toOrderIds(List<OrderQueryDto> result) {
         return result.stream()
                         .map(o -> o.getOrderId())
                         .collect(Collectors.toList());
     }
 
+    /**
+     * 주문 id가 많으면 IN 절 하나로 조회하지 않고, 고정 크기 chunk로 나누어 조회 (OrderItemChunkLoader)
+     */
     private Map<Long, List<OrderItemQueryDto>> findOrderItemMap(List<Long> orderIds) {
-        List<OrderItemQueryDto> orderItems = em.createQuery(
-                                "SELECT new jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count) " +
-                                   "FROM OrderItem oi " +
-                                   "JOIN oi.item i " +
-                                   "WHERE oi.order.id IN :orderIds", OrderItemQueryDto.class)
-                                .setParameter("orderIds", orderIds)
-                                .getResultList();
-
-       return orderItems.stream()
-                        .collect(Collectors.groupingBy(OrderItemQueryDto::getOrderId));
+        return orderItemChunkLoader.findOrderItemMap(orderIds);
     }
 
     /**
@@ -96,14 +146,112 @@ public class OrderQueryRepository {
                 .getResultList();
     }
 
-    public List<OrderFlatDto> findAllByDto_flat() {
-        return em.createQuery(
-                "SELECT NEW jpabook.jpashop.repository.order.query.OrderFlatDto(o.id, m.name, o.orderDate, o.status, d.address, i.name, oi.orderPrice, oi.count)" +
+    /**
+     * 동시 조회용 (OrderAsyncQueryService) 주문 id 범위의 상한 : lastOrderId 이후 limit번째 주문 id (없으면 null)
+     *  - 주문 id만 PK 인덱스 순으로 읽음 (최대 limit건)
+     *  - 주문 / 배송지 / 주문상품 쿼리가 모두 같은 범위 (lastOrderId, toOrderId]를 조회하므로, 서로 기다리지 않고 동시에 실행 가능
+     *  - 💡 범위 없이 조회하면 세 쿼리 모두 테이블 전체를 읽어 Map으로 만듦
+     */
+    public Long findToOrderId(Long lastOrderId, int limit) {
+        TypedQuery<Long> query = em.createQuery(
+                        "SELECT o.id FROM Order o " + afterCondition("WHERE", "o.id", lastOrderId) + "ORDER BY o.id", Long.class)
+                .setMaxResults(limit);
+        List<Long> orderIds = setLastOrderId(query, lastOrderId).getResultList();
+
+        return orderIds.isEmpty() ? null : orderIds.get(orderIds.size() - 1);
+    }
+
+    /**
+     * 주문 + 회원 (toOne), 배송지 제외 : (lastOrderId, toOrderId] 범위, o.id 순
+     */
+    public List<OrderQueryDto> findOrderHeaders(Long lastOrderId, Long toOrderId) {
+        TypedQuery<OrderQueryDto> query = em.createQuery(
+                        "SELECT new jpabook.jpashop.repository.order.query.OrderQueryDto(o.id, m.name, o.orderDate, o.status) " +
+                                "FROM Order o " +
+                                "JOIN o.member m " +
+                                "WHERE o.id <= :toOrderId " + afterCondition("AND", "o.id", lastOrderId) +
+                                "ORDER BY o.id", OrderQueryDto.class)
+                .setParameter("toOrderId", toOrderId);
+
+        return setLastOrderId(query, lastOrderId).getResultList();
+    }
+
+    /**
+     * 주문 id -> 배송지 : (lastOrderId, toOrderId] 범위
+     */
+    public Map<Long, Address> findDeliveryAddressMap(Long lastOrderId, Long toOrderId) {
+        TypedQuery<Object[]> query = em.createQuery(
+                        "SELECT o.id, d.address " +
+                                "FROM Order o " +
+                                "JOIN o.delivery d " +
+                                "WHERE o.id <= :toOrderId " + afterCondition("AND", "o.id", lastOrderId), Object[].class)
+                .setParameter("toOrderId", toOrderId);
+
+        Map<Long, Address> result = new HashMap<>(); // 💡 Collectors.toMap은 null 값(주소 없음)을 허용하지 않음
+        for (Object[] row : setLastOrderId(query, lastOrderId).getResultList()) {
+            result.put((Long) row[0], (Address) row[1]);
+        }
+
+        return result;
+    }
+
+    /**
+     * 주문 id -> 주문상품 목록 : (lastOrderId, toOrderId] 범위 (oi.order.id는 FK 컬럼이므로 주문 조인 없음)
+     */
+    public Map<Long, List<OrderItemQueryDto>> findOrderItemMapInRange(Long lastOrderId, Long toOrderId) {
+        TypedQuery<OrderItemQueryDto> query = em.createQuery(
+                        "SELECT new jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count) " +
+                                "FROM OrderItem oi " +
+                                "JOIN oi.item i " +
+                                "WHERE oi.order.id <= :toOrderId " + afterCondition("AND", "oi.order.id", lastOrderId), OrderItemQueryDto.class)
+                .setParameter("toOrderId", toOrderId);
+
+        return setLastOrderId(query, lastOrderId).getResultStream()
+                .collect(Collectors.groupingBy(OrderItemQueryDto::getOrderId));
+    }
+
+    /**
+     * 💡 (:lastOrderId IS NULL OR ...) 형태는 인덱스를 못 탈 수 있으므로, 조건 자체를 분기 (OrderRepository.findAllWithMemberDelivery와 동일)
+     */
+    private String afterCondition(String keyword, String orderIdPath, Long lastOrderId) {
+        return lastOrderId != null ? keyword + " " + orderIdPath + " > :lastOrderId " : "";
+    }
+
+    private <T> TypedQuery<T> setLastOrderId(TypedQuery<T> query, Long lastOrderId) {
+        return lastOrderId != null ? query.setParameter("lastOrderId", lastOrderId) : query;
+    }
+
+    /**
+     * 플랫 데이터 조회 + 주문 기준 페이징
+     *  - o.id 순으로 한 행씩 읽으면서 OrderFlatAssembler로 바로 주문 단위로 접음
+     *  - 💡 offset 이전 주문의 행은 DB에서 읽고 버리므로, 깊은 페이지에는 V3.2 / V5 권장
+     */
+    public List<OrderQueryDto> findAllByDto_flat(int offset, int limit) {
+        try (Stream<OrderFlatDto> rows = em.createQuery(
+                "SELECT NEW jpabook.jpashop.repository.order.query.OrderFlatDto(o.id, m.name, o.orderDate, o.status, d.address, i.name, oi.orderPrice, oi.count) " +
                         "FROM Order o " +
                         "JOIN o.member m " +
                         "JOIN o.delivery d " +
                         "JOIN o.orderItems oi " +
-                        "JOIN oi.item i", OrderFlatDto.class)
-                .getResultList();
+                        "JOIN oi.item i " +
+                        "ORDER BY o.id, oi.id", OrderFlatDto.class)
+                .getResultStream()) {
+            return OrderFlatAssembler.assemble(rows.iterator(), offset, limit);
+        }
+    }
+
+    /**
+     * 플랫 데이터를 JDBC로 한 행씩 전달 (o.order_id 순)
+     *  - 엔티티 / DTO 변환 없이 행을 바로 사용하는 경우 (OrderFlatJsonWriter)
+     */
+    public void streamAllByFlatRows(RowCallbackHandler handler) {
+        jdbcTemplate.query(
+                "SELECT o.order_id, m.name, o.order_date, o.status, d.city, d.street, d.zipcode, i.name, oi.order_price, oi.count " +
+                        "FROM orders o " +
+                        "JOIN member m ON m.member_id = o.member_id " +
+                        "JOIN delivery d ON d.delivery_id = o.delivery_id " +
+                        "JOIN order_item oi ON oi.order_id = o.order_id " +
+                        "JOIN item i ON i.item_id = oi.item_id " +
+                        "ORDER BY o.order_id, oi.order_item_id", handler);
     }
 }
@@ -1,6 +1,7 @@
 package jpabook.jpashop.repository.order.simplequery;
 
 import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.OrderStatus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
@@ -19,4 +20,23 @@ public class OrderSimpleQueryRepository {
                         + "JOIN o.delivery d", OrderSimpleQueryDto.class)
                 .getResultList();
     }
+
+    /**
+     * 주문 요약 읽기 모델 조회 (order_summary 테이블 1개, JOIN 없음)
+     *  - 전체 : PK 순서로 스캔
+     *  - 상태별 : idx_order_summary_status (status, order_id) 인덱스 범위 스캔, 정렬 불필요
+     */
+    public List<OrderSummaryQueryDto> findOrderSummaries(OrderStatus status) {
+        String jpql = "SELECT new jpabook.jpashop.repository.order.simplequery.OrderSummaryQueryDto(s.orderId, s.memberName, s.orderDate, s.status, s.address, s.totalPrice) "
+                + "FROM OrderSummary s ";
+
+        if(status == null) {
+            return em.createQuery(jpql + "ORDER BY s.orderId", OrderSummaryQueryDto.class)
+                    .getResultList();
+        }
+
+        return em.createQuery(jpql + "WHERE s.status = :status ORDER BY s.orderId", OrderSummaryQueryDto.class)
+                .setParameter("status", status)
+                .getResultList();
+    }
 }
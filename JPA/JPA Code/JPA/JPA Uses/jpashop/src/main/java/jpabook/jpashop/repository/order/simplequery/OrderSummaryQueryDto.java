@@ -0,0 +1,27 @@
+package jpabook.jpashop.repository.order.simplequery;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class OrderSummaryQueryDto {
+
+    private Long orderId;
+    private String name;
+    private LocalDateTime orderDate; // 주문 시간
+    private OrderStatus orderStatus;
+    private Address address;
+    private int totalPrice; // 전체 주문 가격
+
+    public OrderSummaryQueryDto(Long orderId, String name, LocalDateTime orderDate, OrderStatus orderStatus, Address address, int totalPrice) {
+        this.orderId = orderId;
+        this.name = name;
+        this.orderDate = orderDate;
+        this.orderStatus = orderStatus;
+        this.address = address;
+        this.totalPrice = totalPrice;
+    }
+}
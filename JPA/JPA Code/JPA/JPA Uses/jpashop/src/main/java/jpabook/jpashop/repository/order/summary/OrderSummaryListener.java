@@ -0,0 +1,37 @@
+package jpabook.jpashop.repository.order.summary;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderEvent;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 주문 엔티티 리스너 : 주문에 쌓인 도메인 이벤트를 읽기 모델(order_summary)에 반영
+ *  - @PostPersist / @PostUpdate는 flush 시점에 주문 INSERT / UPDATE SQL 실행 직후 호출 (같은 트랜잭션)
+ *  - @PrePersist는 persist() 호출 시점 : 주문 요약 INSERT를 모아서 커밋 전에 반영하도록 미리 등록 (커밋 시 flush보다 먼저)
+ *  - 💡 스프링 빈으로 생성됨 (스프링 부트가 Hibernate에 SpringBeanContainer 등록, 생성자 주입 가능)
+ *  - 💡 콜백 안에서는 EntityManager를 사용하면 안 되므로 JDBC로 반영 (OrderSummaryProjector)
+ */
+@RequiredArgsConstructor
+public class OrderSummaryListener {
+
+    private final OrderSummaryProjector orderSummaryProjector;
+
+    @PrePersist
+    public void prepare(Order order) {
+        orderSummaryProjector.prepareBatch();
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void apply(Order order) {
+        for (OrderEvent event : order.pullEvents()) {
+            switch (event) {
+                case CREATED -> orderSummaryProjector.insert(order);
+                case CANCELED -> orderSummaryProjector.updateStatus(order.getId(), order.getStatus());
+            }
+        }
+    }
+}
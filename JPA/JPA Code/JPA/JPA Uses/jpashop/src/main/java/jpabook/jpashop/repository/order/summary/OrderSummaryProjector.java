@@ -0,0 +1,181 @@
+package jpabook.jpashop.repository.order.summary;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 주문 요약 읽기 모델(order_summary) 갱신
+ *  - 주문 생성 / 취소 : 엔티티 리스너(OrderSummaryListener)가 주문 INSERT / UPDATE 직후 호출
+ *  - 회원 이름 변경 : MemberService.update()
+ *  - 💡 JdbcTemplate은 JPA 트랜잭션과 같은 커넥션을 사용하므로, 주문이 롤백되면 읽기 모델도 함께 롤백
+ *  - 💡 엔티티 리스너에서 사용하므로 EntityManager에 의존하지 않음 (EntityManagerFactory 생성 중에 만들어짐, 커밋 전 flush에만 ObjectProvider로 사용)
+ *
+ * 주문 생성은 트랜잭션마다 모아서 JDBC Batch 1번 (대량 주문 시 주문 수만큼 INSERT를 따로 보내지 않음)
+ *  - 커밋 전(beforeCommit)에 영속성 컨텍스트를 먼저 flush(남은 주문 INSERT -> @PostPersist)한 후 모은 행을 한 번에 INSERT
+ *  - 상태 / 회원 이름 변경은 바로 UPDATE, 그 전에 모은 행을 먼저 INSERT (순서 유지)
+ *  - 같은 트랜잭션에서 커밋 전에 읽기 모델을 조회해야 하면 flush() 호출
+ *
+ * 정합성 맞추기
+ *  - JPQL 벌크 연산, JDBC 직접 변경 등 엔티티를 거치지 않은 변경은 반영되지 않음
+ *  - countDrift()로 원본과 다른 행 수를 확인하고, rebuild()로 원본에서 다시 만듦 (OrderSummaryEndpoint)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderSummaryProjector {
+
+    /**
+     * 원본 (orders + member + delivery + order_item)에서 만든 주문 요약
+     */
+    private static final String SOURCE_QUERY = "SELECT o.order_id, o.member_id, m.name, o.order_date, o.status, d.city, d.street, d.zipcode, "
+            + "COALESCE(SUM(oi.order_price * oi.count), 0) "
+            + "FROM orders o "
+            + "JOIN member m ON m.member_id = o.member_id "
+            + "JOIN delivery d ON d.delivery_id = o.delivery_id "
+            + "LEFT JOIN order_item oi ON oi.order_id = o.order_id "
+            + "GROUP BY o.order_id, o.member_id, m.name, o.order_date, o.status, d.city, d.street, d.zipcode";
+
+    private static final String SUMMARY_QUERY = "SELECT order_id, member_id, member_name, order_date, status, city, street, zipcode, total_price "
+            + "FROM order_summary";
+
+    private static final String INSERT_COLUMNS = "INSERT INTO order_summary "
+            + "(order_id, member_id, member_name, order_date, status, city, street, zipcode, total_price) ";
+
+    private static final String INSERT_VALUES = INSERT_COLUMNS + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<EntityManager> entityManager;
+
+    /**
+     * 주문 생성 전 (@PrePersist) : 이 트랜잭션의 주문 요약 INSERT를 모아서 커밋 전에 반영하도록 등록 (트랜잭션당 1번)
+     */
+    public void prepareBatch() {
+        if(!TransactionSynchronizationManager.isSynchronizationActive() || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+
+        TransactionSynchronizationManager.bindResource(this, new ArrayList<Object[]>());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                try {
+                    entityManager.getObject().flush(); // 커밋 시 flush는 beforeCommit 이후이므로, 남은 주문 INSERT를 먼저 실행
+                } catch (RuntimeException e) {
+                    // 커밋 시 flush처럼 스프링 예외로 변환 (OptimisticLockException -> OptimisticLockingFailureException : OrderFacade 재시도)
+                    DataAccessException translated = EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(e);
+                    throw translated != null ? translated : e;
+                }
+                OrderSummaryProjector.this.flush(); // TransactionSynchronization.flush()와 구분
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(OrderSummaryProjector.this);
+            }
+        });
+    }
+
+    /**
+     * 주문 생성 : 트랜잭션에서 모으는 중이면 모아 두고, 아니면 바로 INSERT
+     */
+    public void insert(Order order) {
+        Address address = order.getDelivery().getAddress();
+        Object[] row = {
+                order.getId(),
+                order.getMember().getId(),
+                order.getMember().getName(),
+                order.getOrderDate(),
+                order.getStatus().name(),
+                address != null ? address.getCity() : null,
+                address != null ? address.getStreet() : null,
+                address != null ? address.getZipcode() : null,
+                order.getTotalPrice()};
+
+        List<Object[]> pending = pendingRows();
+        if(pending == null) {
+            jdbcTemplate.update(INSERT_VALUES, row);
+        } else {
+            pending.add(row);
+        }
+    }
+
+    /**
+     * 모아 둔 주문 요약을 JDBC Batch로 INSERT (커밋 전에 자동으로 호출)
+     */
+    public void flush() {
+        List<Object[]> pending = pendingRows();
+        if(pending == null || pending.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_VALUES, pending);
+        pending.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> pendingRows() {
+        return (List<Object[]>) TransactionSynchronizationManager.getResource(this);
+    }
+
+    /**
+     * 주문 상태 변경 (주문 취소)
+     */
+    public void updateStatus(Long orderId, OrderStatus status) {
+        flush();
+        jdbcTemplate.update("UPDATE order_summary SET status = ? WHERE order_id = ?", status.name(), orderId);
+    }
+
+    /**
+     * 회원 이름 변경 (idx_order_summary_member)
+     */
+    public void updateMemberName(Long memberId, String name) {
+        flush();
+        jdbcTemplate.update("UPDATE order_summary SET member_name = ? WHERE member_id = ?", name, memberId);
+    }
+
+    /**
+     * 원본과 다른 행 수 (원본에만 있거나 다른 값 + 읽기 모델에만 있거나 다른 값)
+     *  - 💡 readOnly가 아닌 트랜잭션 : 복제본(replica)으로 라우팅되지 않고 항상 primary에서 비교 (복제 지연만큼 다른 값이 되지 않음)
+     */
+    @Transactional
+    public long countDrift() {
+        flush();
+
+        Long missing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (" + SOURCE_QUERY + " EXCEPT " + SUMMARY_QUERY + ")", Long.class);
+        Long stale = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (" + SUMMARY_QUERY + " EXCEPT " + SOURCE_QUERY + ")", Long.class);
+
+        return missing + stale;
+    }
+
+    /**
+     * 원본에서 읽기 모델 전체를 다시 만듦 (한 트랜잭션, 반영된 행 수 반환)
+     */
+    @Transactional
+    public int rebuild() {
+        List<Object[]> pending = pendingRows();
+        if(pending != null) {
+            pending.clear(); // 이미 INSERT된 주문이므로 원본에서 다시 만듦
+        }
+
+        jdbcTemplate.update("DELETE FROM order_summary");
+        int rows = jdbcTemplate.update(INSERT_COLUMNS + SOURCE_QUERY);
+
+        log.info("주문 요약 읽기 모델 재생성 : {}건", rows);
+        return rows;
+    }
+}
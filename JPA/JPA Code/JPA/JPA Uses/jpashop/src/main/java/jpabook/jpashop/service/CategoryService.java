@@ -0,0 +1,127 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Category;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.repository.CategoryRepository;
+import jpabook.jpashop.repository.CategorySnapshot;
+import jpabook.jpashop.repository.CategoryTree;
+import jpabook.jpashop.repository.ItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 카테고리 변경은 커밋 후 카테고리 트리 스냅샷(CategoryTree)을 다시 만듦
+ * 하위 트리 조회는 스냅샷으로 답함 (카테고리 깊이와 상관없이 DB 조회 0 ~ 1번)
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class CategoryService {
+
+    private final CategoryRepository categoryRepository;
+    private final ItemRepository itemRepository;
+    private final CategoryTree categoryTree;
+
+    /**
+     * 카테고리 추가 (parentId가 null이면 루트)
+     */
+    @Transactional
+    public Long create(String name, Long parentId) {
+        Category category = new Category();
+        category.setName(name);
+
+        if(parentId != null) {
+            findCategory(parentId).addChildCategory(category);
+        }
+
+        categoryRepository.save(category);
+        categoryTree.rebuildAfterCommit();
+
+        return category.getId();
+    }
+
+    /**
+     * 카테고리 이동 (parentId가 null이면 루트로)
+     *  - 자기 자신이나 자손 밑으로는 이동 불가 (순환)
+     *  - 순환 검사는 스냅샷이 아닌 영속성 컨텍스트의 엔티티로 (같은 트랜잭션에서 먼저 이동한, 커밋 전 변경까지 포함)
+     *  - 💡 이동할 카테고리와 새 부모의 조상을 모두 잠금 (PESSIMISTIC_WRITE) : 동시에 서로의 밑으로 이동해서 순환이 생기지 않도록 직렬화
+     */
+    @Transactional
+    public void move(Long categoryId, Long parentId) {
+        Category category = findCategoryForUpdate(categoryId);
+        Category parent = parentId == null ? null : findCategoryForUpdate(parentId);
+
+        for (Category p = parent; p != null; p = p.getParent() == null ? null : findCategoryForUpdate(p.getParent().getId())) {
+            if(p == category) {
+                throw new IllegalStateException("자신의 하위 카테고리로 이동할 수 없습니다.");
+            }
+        }
+
+        if(category.getParent() != null) {
+            category.getParent().getChild().remove(category);
+        }
+
+        if(parent == null) {
+            category.setParent(null);
+        } else {
+            parent.addChildCategory(category);
+        }
+
+        categoryTree.rebuildAfterCommit();
+    }
+
+    /**
+     * 카테고리에 상품 등록
+     */
+    @Transactional
+    public void addItem(Long categoryId, Long itemId) {
+        Category category = findCategory(categoryId);
+        category.getItems().add(itemRepository.getReference(itemId));
+
+        categoryTree.rebuildAfterCommit();
+    }
+
+    /**
+     * 하위 카테고리(자신 포함)에 속한 상품
+     *  - 하위 트리의 상품 id는 스냅샷에서 -> 상품은 IN 절로 1번 조회 (상품이 없으면 0번)
+     */
+    public List<Item> findItemsInSubtree(Long categoryId) {
+        CategorySnapshot snapshot = categoryTree.snapshot();
+
+        if(!snapshot.contains(categoryId)) {
+            throw new IllegalArgumentException("존재하지 않는 카테고리입니다. categoryId = " + categoryId);
+        }
+
+        Set<Long> itemIds = snapshot.findSubtreeItemIds(categoryId);
+        return itemIds.isEmpty() ? List.of() : itemRepository.findAllById(itemIds);
+    }
+
+    /**
+     * 하위 카테고리(자신 포함) id (DB 조회 없음)
+     */
+    public List<Long> findSubtreeCategoryIds(Long categoryId) {
+        return categoryTree.snapshot().findSubtreeCategoryIds(categoryId);
+    }
+
+    private Category findCategory(Long categoryId) {
+        Category category = categoryRepository.findOne(categoryId);
+
+        if(category == null) {
+            throw new IllegalArgumentException("존재하지 않는 카테고리입니다. categoryId = " + categoryId);
+        }
+        return category;
+    }
+
+    private Category findCategoryForUpdate(Long categoryId) {
+        Category category = categoryRepository.findOneForUpdate(categoryId);
+
+        if(category == null) {
+            throw new IllegalArgumentException("존재하지 않는 카테고리입니다. categoryId = " + categoryId);
+        }
+        return category;
+    }
+}
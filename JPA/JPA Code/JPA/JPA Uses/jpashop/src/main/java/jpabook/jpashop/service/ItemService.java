@@ -1,6 +1,7 @@
 package jpabook.jpashop.service;
 
 import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.repository.ItemPatch;
 import jpabook.jpashop.repository.ItemRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -14,21 +15,55 @@ import java.util.List;
 public class ItemService {
 
     private final ItemRepository itemRepository;
+    private final StockReservationBuffer stockReservationBuffer;
 
     @Transactional
     public void saveItem(Item item) {
         itemRepository.save(item);
     }
 
+    @Transactional
+    public void updateItem(Long itemId, String name, int price, int stockQuantity) {
+        updateItem(itemId, new ItemPatch(name, price, stockQuantity));
+    }
+
     /**
-     * 영속성 컨테스트가 자동 변경
+     * 상품 부분 수정 : 조회 없이 변경할 항목만 UPDATE 1번 (ItemRepository.patch)
+     *  - 💡 인기 상품의 재고 변경은 기존 재고와의 차이를 버퍼에 반영해야 하므로, 조회 후 변경 감지로 수정
      */
     @Transactional
-    public void updateItem(Long itemId, String name, int price, int stockQuantity) {
+    public void updateItem(Long itemId, ItemPatch changes) {
+        if(changes.getStockQuantity() != null && stockReservationBuffer.isBuffered(itemId)) {
+            updateBufferedItem(itemId, changes);
+            return;
+        }
+
+        if(itemRepository.patch(itemId, changes) == 0) {
+            throw new IllegalArgumentException("존재하지 않는 상품입니다. itemId = " + itemId);
+        }
+    }
+
+    /**
+     * 영속성 컨테스트가 자동 변경
+     *  - 2차 캐시(READ_WRITE) : flush 시 캐시 항목에 락, 커밋 후 새 값으로 교체 (롤백 시 제거)
+     *  - @DynamicUpdate : 변경된 컬럼만 UPDATE
+     *  - 💡 조회 전에 상품 락을 잡아서, 커밋 전까지 버퍼의 DB 반영(재고, version 변경)과 겹치지 않음 (낙관적 락 충돌 방지)
+     */
+    private void updateBufferedItem(Long itemId, ItemPatch changes) {
+        stockReservationBuffer.lockUntilCompletion(itemId);
+
         Item findItem = itemRepository.findOne(itemId);
-        findItem.setName(name);
-        findItem.setPrice(price);
-        findItem.setStockQuantity(stockQuantity);
+
+        // 인기 상품은 커밋 후 변경된 재고 차이만큼 버퍼에도 반영
+        stockReservationBuffer.adjustAfterCommit(itemId, changes.getStockQuantity() - findItem.getStockQuantity());
+
+        if(changes.getName() != null) {
+            findItem.setName(changes.getName());
+        }
+        if(changes.getPrice() != null) {
+            findItem.setPrice(changes.getPrice());
+        }
+        findItem.setStockQuantity(changes.getStockQuantity());
     }
 
     public List<Item> findItem() {
@@ -1,8 +1,10 @@
 package jpabook.jpashop.service;
 
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.MemberNameIndex;
 import jpabook.jpashop.repository.MemberRepository;
 import jpabook.jpashop.repository.MemberRepositoryOld;
+import jpabook.jpashop.repository.order.summary.OrderSummaryProjector;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,6 +17,8 @@ import java.util.List;
 public class MemberService {
 
     private final MemberRepository memberRepository;
+    private final MemberNameIndex memberNameIndex;
+    private final OrderSummaryProjector orderSummaryProjector;
 
     /**
      * 회원 가입
@@ -23,6 +27,7 @@ public class MemberService {
     public Long join(Member member) {
         validateDuplicateMember(member); // 중복 회원 검증
         memberRepository.save(member);
+        memberNameIndex.putAfterCommit(member.getId(), member.getName()); // 주문 검색용 회원 이름 인덱스
 
         return member.getId();
     }
@@ -52,5 +57,8 @@ public class MemberService {
         Member member = memberRepository.findById(id).get();
         member.setName(name);
         // Dirty-Checking (변경 감지)
+
+        memberNameIndex.putAfterCommit(id, name);
+        orderSummaryProjector.updateMemberName(id, name); // 주문 요약 읽기 모델의 회원 이름 (같은 트랜잭션)
     }
 }
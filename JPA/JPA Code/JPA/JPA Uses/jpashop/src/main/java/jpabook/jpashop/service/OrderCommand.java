@@ -0,0 +1,24 @@
+package jpabook.jpashop.service;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 주문 1건 요청 (회원, 상품, 수량)
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCommand {
+    @NotNull
+    private Long memberId;
+
+    @NotNull
+    private Long itemId;
+
+    @Positive
+    private int count;
+}
@@ -0,0 +1,58 @@
+package jpabook.jpashop.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 낙관적 락 충돌 시 재시도
+ *  - 같은 상품을 동시에 수정하면 @Version 충돌로 나중에 커밋한 트랜잭션이 실패
+ *  - 💡 재시도는 새로운 트랜잭션에서 해야 하므로, 트랜잭션(OrderService) 바깥에서 처리
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderFacade {
+
+    private final OrderService orderService;
+
+    @Value("${jpashop.order.optimistic-retry:10}")
+    private int maxRetry;
+
+    public Long order(Long memberId, Long itemId, int count) {
+        return retry(() -> orderService.order(memberId, itemId, count));
+    }
+
+    /**
+     * 대량 주문 : 충돌 시 전체를 새로운 트랜잭션에서 다시 주문 (실패한 트랜잭션은 전체 롤백되었으므로 중복 주문 없음)
+     */
+    public List<Long> orderAll(List<OrderCommand> commands) {
+        return retry(() -> orderService.orderAll(commands));
+    }
+
+    public void cancelOrder(Long orderId) {
+        retry(() -> {
+            orderService.cancelOrder(orderId);
+            return null;
+        });
+    }
+
+    private <T> T retry(Supplier<T> task) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return task.get();
+            } catch (OptimisticLockingFailureException e) {
+                if(attempt > maxRetry) {
+                    throw e;
+                }
+
+                log.debug("낙관적 락 충돌, 재시도 {}/{}", attempt, maxRetry);
+            }
+        }
+    }
+}
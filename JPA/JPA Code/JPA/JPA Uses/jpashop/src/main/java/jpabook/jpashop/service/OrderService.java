@@ -7,10 +7,17 @@ import jpabook.jpashop.domain.OrderItem;
 import jpabook.jpashop.domain.item.Item;
 import jpabook.jpashop.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
@@ -20,6 +27,12 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final MemberRepository memberRepository;
     private final ItemRepository itemRepository;
+    private final StockReservationBuffer stockReservationBuffer;
+
+    private static final int BATCH_SIZE = 100; // hibernate.jdbc.batch_size와 동일하게 맞춤
+
+    @Value("${jpashop.order.stock-update:ATOMIC}")
+    private StockUpdateMode stockUpdateMode;
 
     /**
      * 주문
@@ -31,12 +44,21 @@ public class OrderService {
         Member member = memberRepository.findById(memberId).get();
         Item item = itemRepository.findOne(itemId);
 
+        // 인기 상품은 상품 행을 UPDATE하지 않고 메모리에서 재고 예약 (롤백 시 자동 반환)
+        boolean buffered = stockReservationBuffer.isBuffered(itemId);
+        if(buffered) {
+            stockReservationBuffer.reserve(itemId, count);
+        }
+
         // 배송정보 생성 (💡 현재 코드에서 영속화 미실시)
         Delivery delivery = new Delivery();
         delivery.setAddress(member.getAddress());
 
         // 주문상품 생성 (💡 현재 코드에서 영속화 미실시)
-        OrderItem orderItem = OrderItem.createOrderItem(item, item.getPrice(), count);
+        // 💡 버퍼 / ATOMIC : 재고는 버퍼 또는 DB가 직접 차감하므로, 엔티티의 재고는 건드리지 않음
+        OrderItem orderItem = buffered || stockUpdateMode == StockUpdateMode.ATOMIC
+                ? OrderItem.createReservedOrderItem(item, item.getPrice(), count)
+                : OrderItem.createOrderItem(item, item.getPrice(), count);
         // OrderItem orderItem = new OrderItem(); // 💡 생성 불가 (생성자 protected), 외부로부터 무분별한 엔티티 생성 제한
 
         // 주문 생성
@@ -48,9 +70,93 @@ public class OrderService {
         // 💡 따라서, order를 영속화하고 DB에 저장하면, 이와 관련된 orderItem / delivery도 영속성 전이로 영속화 되면서, Commit 시점에 DB에 저장
         orderRepository.save(order);
 
+        // 재고 차감 (ATOMIC)
+        // 💡 가장 마지막에 실행 : UPDATE 시점부터 커밋까지 상품 행 락을 잡으므로, 락을 잡는 시간을 최소화
+        // 💡 재고 부족 시 예외 -> 트랜잭션 롤백으로 주문도 저장되지 않음
+        if(!buffered && stockUpdateMode == StockUpdateMode.ATOMIC) {
+            itemRepository.removeStock(item, count);
+        }
+
         return order.getId();
     }
 
+    /**
+     * 대량 주문
+     *  - 주문마다 order()를 호출하면 트랜잭션, 회원 / 상품 조회, 재고 UPDATE가 주문 수만큼 발생
+     *  - 회원 / 상품은 IN 쿼리로 한 번에 확인, 재고는 상품별 합계로 상품당 1번만 차감
+     *  - INSERT는 hibernate.jdbc.batch_size 단위로 묶어서 전송 (ID는 시퀀스 pooled 할당이므로 INSERT 전에 확보 가능)
+     *  - BATCH_SIZE 건마다 flush / clear하여 영속성 컨텍스트가 계속 커지지 않도록 함
+     *  - 하나라도 실패하면 전체 롤백
+     */
+    @Transactional
+    public List<Long> orderAll(List<OrderCommand> commands) {
+        Set<Long> memberIds = commands.stream().map(OrderCommand::getMemberId).collect(Collectors.toSet());
+        if(memberRepository.findAllById(memberIds).size() != memberIds.size()) {
+            throw new IllegalArgumentException("존재하지 않는 회원이 포함되어 있습니다.");
+        }
+
+        Map<Long, Integer> prices = new HashMap<>(); // clear 이후에도 사용하므로 가격만 보관
+        for (Item item : itemRepository.findAllById(commands.stream().map(OrderCommand::getItemId).collect(Collectors.toSet()))) {
+            prices.put(item.getId(), item.getPrice());
+        }
+
+        Map<Long, Integer> itemCounts = new LinkedHashMap<>(); // 상품별 주문 수량 합계
+        for (OrderCommand command : commands) {
+            if(!prices.containsKey(command.getItemId())) {
+                throw new IllegalArgumentException("존재하지 않는 상품이 포함되어 있습니다. itemId = " + command.getItemId());
+            }
+            if(command.getCount() <= 0) {
+                throw new IllegalArgumentException("주문 수량은 1개 이상이어야 합니다.");
+            }
+            itemCounts.merge(command.getItemId(), command.getCount(), Integer::sum);
+        }
+
+        // 인기 상품은 먼저 메모리에서 예약 (재고 부족이면 INSERT 전에 바로 실패, 롤백 시 자동 반환)
+        itemCounts.forEach((itemId, count) -> {
+            if(stockReservationBuffer.isBuffered(itemId)) {
+                stockReservationBuffer.reserve(itemId, count);
+            }
+        });
+
+        List<Long> orderIds = new ArrayList<>(commands.size());
+        Map<Long, Member> members = new HashMap<>();
+
+        for (OrderCommand command : commands) {
+            Member member = members.computeIfAbsent(command.getMemberId(), memberRepository::getReferenceById);
+            Item item = itemRepository.getReference(command.getItemId()); // FK만 필요하므로 조회 없이 프록시
+
+            Delivery delivery = new Delivery();
+            delivery.setAddress(member.getAddress());
+
+            // 재고는 아래에서 상품별로 한 번에 차감
+            OrderItem orderItem = OrderItem.createReservedOrderItem(item, prices.get(command.getItemId()), command.getCount());
+            Order order = Order.createOrder(member, delivery, orderItem);
+            orderRepository.save(order);
+            orderIds.add(order.getId());
+
+            if(orderIds.size() % BATCH_SIZE == 0) {
+                orderRepository.flushAndClear();
+                members.clear(); // clear 이후 준영속 상태이므로 다시 조회
+            }
+        }
+
+        // 재고 차감 (인기 상품 제외, 상품당 1번)
+        itemCounts.forEach((itemId, count) -> {
+            if(stockReservationBuffer.isBuffered(itemId)) {
+                return;
+            }
+
+            Item item = itemRepository.findOne(itemId);
+            if(stockUpdateMode == StockUpdateMode.ATOMIC) {
+                itemRepository.removeStock(item, count);
+            } else {
+                item.removeStock(count);
+            }
+        });
+
+        return orderIds;
+    }
+
     /**
      * 주문 취소
      */
@@ -63,6 +169,11 @@ public class OrderService {
         // 기존 SQL : 객체와 관련된 값을 모두 가져와서, SQL 쿼리 작성 후 실행
         // 💡 JPA : 엔티티 내 비즈니스 로직을 통해 엔티티 내 비즈니스 로직에 접근해 데이터가 변경되면, Dirty-Checking되어 변경된 감지하여 변경 내역에 대한 UPDATE SQL 실행
         order.cancel();
+
+        // 인기 상품은 커밋 후 반환된 재고를 버퍼에도 반영
+        for (OrderItem orderItem : order.getOrderItems()) {
+            stockReservationBuffer.adjustAfterCommit(orderItem.getItem().getId(), orderItem.getCount());
+        }
     }
 
     /**
@@ -0,0 +1,376 @@
+package jpabook.jpashop.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 인기 상품 재고 예약 버퍼
+ *  - 인기 상품(jpashop.stock.buffer.hot-items)은 주문마다 상품 행을 UPDATE하지 않고, 메모리에서 재고를 예약
+ *  - 재고를 N개의 stripe로 나누어 스레드마다 다른 stripe에서 CAS로 차감 (락 없음, 경합 분산)
+ *  - 예약 수량은 주문 트랜잭션에서 원장(stock_reservation)에 INSERT (상품 행 락 없음, 주문과 함께 커밋 / 롤백)
+ *  - 원장은 주기적으로 모아서 한 번에 DB 반영 (JDBC Batch, 상대값 UPDATE + 원장 삭제를 한 트랜잭션으로)
+ *
+ * 불변식 : stripe 합계 = DB 재고 - 미반영 원장 합계
+ *  - 주문 예약 : stripe -= 수량, 원장 INSERT (롤백 시 stripe 되돌림, 원장은 함께 롤백)
+ *  - DB 반영 : 원장 삭제, DB -= 삭제한 원장 합계
+ *  - 주문 취소, 상품 수정 : 엔티티로 DB를 변경한 후, 커밋되면 변경량만큼 stripe 조정 (adjust)
+ *  - 💡 DB 반영은 version을 증가시키므로, 그 사이 엔티티로 수정한 트랜잭션은 낙관적 락 충돌로 실패 (이중 반영 방지)
+ *  - 💡 상품 수정은 상품별 락(lockUntilCompletion)을 트랜잭션이 끝날 때까지 잡으므로, 그 동안 해당 상품은 반영하지 않음 (충돌 없음)
+ *
+ * 정합성 맞추기 (reconcile)
+ *  - 시작 시 : DB 재고 - 미반영 원장 합계를 stripe에 나누어 담음 (비정상 종료로 반영하지 못한 예약도 포함)
+ *  - 종료 시 : 남은 원장을 모두 DB 반영
+ *
+ * 💡 인스턴스 1개에서만 사용 : stock_buffer_lease 소유권을 가진 인스턴스만 시작 가능 (다른 인스턴스는 시작 시 실패)
+ *  - 같은 owner(jpashop.stock.buffer.owner)로 재시작하면 바로, 다른 owner는 lease-ms 동안 연장되지 않으면 가져감
+ *  - 소유권을 잃으면(연장 실패) 예약하지 않음 (IllegalStateException)
+ */
+@Slf4j
+@Component
+public class StockReservationBuffer {
+
+    private static final int PADDING = 8; // stripe 사이 간격 (long 8개 = 64byte, False Sharing 방지)
+
+    private static final long LEASE_ID = 1L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory emf;
+    private final TransactionTemplate transactionTemplate;
+    private final List<Long> hotItemIds;
+    private final int stripes;
+    private final String owner;
+    private final long leaseMillis;
+
+    private final Map<Long, HotStock> hotStocks = new ConcurrentHashMap<>();
+    private volatile boolean leaseLost;
+
+    public StockReservationBuffer(JdbcTemplate jdbcTemplate,
+                                  EntityManagerFactory emf,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${jpashop.stock.buffer.hot-items:}") List<Long> hotItemIds,
+                                  @Value("${jpashop.stock.buffer.stripes:0}") int stripes,
+                                  @Value("${jpashop.stock.buffer.owner:}") String owner,
+                                  @Value("${jpashop.stock.buffer.lease-ms:30000}") long leaseMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.emf = emf;
+        this.transactionTemplate = transactionTemplate;
+        this.hotItemIds = hotItemIds;
+        this.stripes = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+        this.owner = StringUtils.hasText(owner) ? owner : UUID.randomUUID().toString();
+        this.leaseMillis = leaseMillis;
+    }
+
+    /**
+     * 시작 시 정합성 맞추기 : 소유권을 가져온 후, DB 재고 - 미반영 원장 합계를 stripe에 나누어 담음
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if(hotItemIds.isEmpty()) {
+            return;
+        }
+
+        if(!acquireLease()) {
+            throw new IllegalStateException("다른 인스턴스가 재고 예약 버퍼를 사용 중입니다. (stock_buffer_lease) owner = " + owner);
+        }
+
+        for (Long itemId : hotItemIds) {
+            Integer stock = jdbcTemplate.query("SELECT i.stock_quantity - COALESCE((SELECT SUM(r.quantity) FROM stock_reservation r WHERE r.item_id = i.item_id), 0) "
+                            + "FROM item i WHERE i.item_id = ?",
+                    rs -> rs.next() ? rs.getInt(1) : null, itemId);
+
+            if(stock == null) {
+                log.warn("재고 버퍼 대상 상품이 없습니다. itemId = {}", itemId);
+                continue;
+            }
+
+            hotStocks.put(itemId, new HotStock(stripes, stock));
+            log.info("재고 버퍼 등록 itemId = {}, stock = {}, stripes = {}", itemId, stock, stripes);
+        }
+    }
+
+    /**
+     * 소유권 가져오기 : 없으면 INSERT, 있으면 같은 owner이거나 만료된 경우만
+     */
+    private boolean acquireLease() {
+        long now = System.currentTimeMillis();
+
+        int updated = jdbcTemplate.update("UPDATE stock_buffer_lease SET owner = ?, expires_at = ? WHERE id = ? AND (owner = ? OR expires_at < ?)",
+                owner, now + leaseMillis, LEASE_ID, owner, now);
+        if(updated > 0) {
+            return true;
+        }
+
+        try {
+            jdbcTemplate.update("INSERT INTO stock_buffer_lease (id, owner, expires_at) VALUES (?, ?, ?)", LEASE_ID, owner, now + leaseMillis);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false; // 다른 인스턴스가 소유 중
+        }
+    }
+
+    /**
+     * 소유권 연장 (만료 시각의 1/3 주기)
+     */
+    @Scheduled(fixedDelayString = "#{${jpashop.stock.buffer.lease-ms:30000} / 3}")
+    public void renewLease() {
+        if(hotStocks.isEmpty() || leaseLost) {
+            return;
+        }
+
+        int updated = jdbcTemplate.update("UPDATE stock_buffer_lease SET expires_at = ? WHERE id = ? AND owner = ?",
+                System.currentTimeMillis() + leaseMillis, LEASE_ID, owner);
+
+        if(updated == 0) {
+            leaseLost = true;
+            log.error("재고 예약 버퍼 소유권을 잃었습니다. 인기 상품 예약을 중단합니다. owner = {}", owner);
+        }
+    }
+
+    public boolean isBuffered(Long itemId) {
+        return hotStocks.containsKey(itemId);
+    }
+
+    /**
+     * 재고 예약
+     *  - 예약 수량은 원장에 INSERT (호출한 트랜잭션과 같은 커넥션, 커밋되면 DB 반영 전에 프로세스가 죽어도 남음)
+     *  - 트랜잭션이 롤백되면 예약한 수량을 다시 반환
+     */
+    public void reserve(Long itemId, int quantity) {
+        if(leaseLost) {
+            throw new IllegalStateException("재고 예약 버퍼 소유권이 없습니다. owner = " + owner);
+        }
+
+        HotStock hotStock = hotStocks.get(itemId);
+
+        if(!hotStock.take(quantity)) {
+            throw new NotEnoughStockException("Need More Stock");
+        }
+
+        try {
+            jdbcTemplate.update("INSERT INTO stock_reservation (item_id, quantity) VALUES (?, ?)", itemId, quantity);
+        } catch (RuntimeException e) {
+            hotStock.put(quantity);
+            throw e;
+        }
+
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if(status != STATUS_COMMITTED) {
+                        hotStock.put(quantity);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 엔티티로 DB 재고를 직접 변경한 경우 (주문 취소, 상품 수정), 커밋되면 변경량만큼 stripe 조정
+     */
+    public void adjustAfterCommit(Long itemId, int delta) {
+        HotStock hotStock = hotStocks.get(itemId);
+
+        if(hotStock == null || delta == 0) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                hotStock.put(delta);
+            }
+        });
+    }
+
+    /**
+     * 엔티티로 인기 상품을 수정하는 경우, 트랜잭션이 끝날 때까지 해당 상품의 DB 반영을 막음
+     *  - 상품을 조회하기 전에 호출 (반영 중이면 반영이 끝날 때까지 대기 -> 반영된 재고, version을 조회)
+     *  - 트랜잭션이 끝나면(커밋, 롤백) 해제
+     */
+    public void lockUntilCompletion(Long itemId) {
+        HotStock hotStock = hotStocks.get(itemId);
+
+        if(hotStock == null || hotStock.lock.isHeldByCurrentThread()) {
+            return;
+        }
+
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("트랜잭션 안에서만 상품 락을 잡을 수 있습니다.");
+        }
+
+        hotStock.lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                hotStock.lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * 원장의 예약 수량을 DB에 반영 (한 트랜잭션)
+     *  - 원장 행을 삭제하고, 실제로 삭제한 행만 상품별로 합산해서 상대값 UPDATE (JDBC Batch)
+     *  - 실패하면 원장 삭제도 롤백되므로 다음 반영 때 다시 반영, 동시에 반영해도 같은 행을 두 번 반영하지 않음
+     *  - 수정 중인(lockUntilCompletion) 상품은 건너뛰고 다음 반영 때 반영
+     */
+    @Scheduled(fixedDelayString = "${jpashop.stock.buffer.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<Long> lockedIds = new ArrayList<>();
+        List<HotStock> locked = new ArrayList<>();
+
+        hotStocks.forEach((itemId, hotStock) -> {
+            if(hotStock.lock.tryLock()) {
+                lockedIds.add(itemId);
+                locked.add(hotStock);
+            }
+        });
+
+        if(lockedIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<Long, Long> flushed = transactionTemplate.execute(status -> {
+                List<Object[]> reservations = jdbcTemplate.query("SELECT reservation_id, item_id, quantity FROM stock_reservation",
+                                (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getLong(2), rs.getInt(3)}).stream()
+                        .filter(reservation -> lockedIds.contains((Long) reservation[1]))
+                        .toList();
+
+                if(reservations.isEmpty()) {
+                    return Map.of();
+                }
+
+                int[] deleted = jdbcTemplate.batchUpdate("DELETE FROM stock_reservation WHERE reservation_id = ?",
+                        reservations.stream().map(reservation -> new Object[]{reservation[0]}).toList());
+
+                Map<Long, Long> deltas = new LinkedHashMap<>();
+                for (int i = 0; i < deleted.length; i++) {
+                    if(deleted[i] > 0) {
+                        deltas.merge((Long) reservations.get(i)[1], (long) (Integer) reservations.get(i)[2], Long::sum);
+                    }
+                }
+
+                jdbcTemplate.batchUpdate("UPDATE item SET stock_quantity = stock_quantity - ?, version = version + 1 WHERE item_id = ?",
+                        deltas.entrySet().stream().map(delta -> new Object[]{delta.getValue(), delta.getKey()}).toList());
+                return deltas;
+            });
+
+            // JDBC로 직접 변경했으므로, 커밋 후 2차 캐시에서 제거 (다음 조회 시 DB에서 다시 읽음)
+            for (Long itemId : flushed.keySet()) {
+                emf.getCache().evict(Item.class, itemId);
+            }
+        } finally {
+            for (HotStock hotStock : locked) {
+                hotStock.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 종료 시 정합성 맞추기 : 남은 원장을 모두 DB 반영하고 소유권 반납 (다른 인스턴스가 바로 시작 가능)
+     */
+    @PreDestroy
+    public void reconcileOnShutdown() {
+        if(hotStocks.isEmpty()) {
+            return;
+        }
+
+        flush();
+        jdbcTemplate.update("DELETE FROM stock_buffer_lease WHERE id = ? AND owner = ?", LEASE_ID, owner);
+    }
+
+    /**
+     * 상품 1개의 예약 가능 재고 (stripe 배열)
+     */
+    static class HotStock {
+        private final int stripes;
+        private final AtomicLongArray counters;
+        private final ReentrantLock lock = new ReentrantLock(); // 상품 수정 <-> DB 반영 상호 배제
+
+        HotStock(int stripes, int stock) {
+            this.stripes = stripes;
+            this.counters = new AtomicLongArray(stripes * PADDING);
+
+            for (int i = 0; i < stripes; i++) { // 재고를 stripe에 고르게 나눔
+                counters.set(i * PADDING, stock / stripes + (i < stock % stripes ? 1 : 0));
+            }
+        }
+
+        long available() {
+            long sum = 0;
+            for (int i = 0; i < stripes; i++) {
+                sum += counters.get(i * PADDING);
+            }
+            return sum;
+        }
+
+        /**
+         * 스레드마다 다른 stripe부터 차감, 한 stripe에 부족하면 여러 stripe에서 나누어 차감
+         *  - 전체가 부족하면 차감한 만큼 되돌리고 false
+         */
+        boolean take(int quantity) {
+            int start = (int) (Thread.currentThread().getId() % stripes);
+            long remaining = quantity;
+
+            for (int i = 0; i < stripes && remaining > 0; i++) {
+                int index = ((start + i) % stripes) * PADDING;
+
+                while(true) {
+                    long current = counters.get(index);
+                    if(current <= 0) {
+                        break;
+                    }
+
+                    long taken = Math.min(current, remaining);
+                    if(counters.compareAndSet(index, current, current - taken)) {
+                        remaining -= taken;
+                        break;
+                    }
+                }
+            }
+
+            if(remaining > 0) {
+                put((int) (quantity - remaining)); // 부족 : 차감한 만큼 되돌림
+                return false;
+            }
+
+            return true;
+        }
+
+        void put(int quantity) {
+            int start = (int) (Thread.currentThread().getId() % stripes);
+            counters.addAndGet(start * PADDING, quantity);
+        }
+    }
+
+    /**
+     * 현재 예약 가능한 재고 (모니터링, 테스트용)
+     */
+    public long available(Long itemId) {
+        return hotStocks.get(itemId).available();
+    }
+}
@@ -0,0 +1,9 @@
+package jpabook.jpashop.service;
+
+/**
+ * 주문 시 재고 차감 방식 (jpashop.order.stock-update)
+ */
+public enum StockUpdateMode {
+    ATOMIC,     // 조건부 UPDATE로 DB에서 바로 차감 (기본값)
+    OPTIMISTIC  // 엔티티에서 차감 후 변경 감지, 충돌 시 @Version으로 감지하여 OrderFacade에서 재시도
+}
@@ -0,0 +1,100 @@
+package jpabook.jpashop.service.query;
+
+import jakarta.annotation.PreDestroy;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 주문 조회 (V5.1) : 서로 의존하지 않는 쿼리 3개(주문, 배송지, 주문상품)를 동시에 실행한 후 합침
+ *  - V5는 주문을 조회한 후에 주문 id로 주문상품을 조회하므로 순서대로 실행 (응답 시간 = 쿼리 시간의 합)
+ *  - V5.1은 범위 조회(주문 id만) + 가장 느린 쿼리의 시간만큼 걸림 (대신 커넥션을 동시에 3개 사용)
+ *  - 세 쿼리 모두 같은 주문 id 범위만 조회 (Keyset 페이징, 한 페이지 최대 limit건)
+ *  - 쿼리마다 별도의 스레드, 별도의 읽기 전용 트랜잭션(커넥션)에서 실행 (요청 스레드는 기다리지 않음)
+ *
+ * 💡 쿼리마다 트랜잭션이 다르므로, 그 사이에 커밋된 변경은 일부 쿼리에만 보일 수 있음
+ *  - 주문 목록에 없는 주문의 주문상품은 버리고, 주문상품이 아직 없는 주문은 빈 목록
+ *
+ * 스레드 풀 (jpashop.query.async.*) : 스레드 수와 대기열 크기 제한, 가득 차면 호출한 스레드에서 실행 (요청 수 조절)
+ */
+@Service
+public class OrderAsyncQueryService {
+
+    private final OrderQueryRepository orderQueryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+
+    public OrderAsyncQueryService(OrderQueryRepository orderQueryRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${jpashop.query.async.threads:8}") int threads,
+                                  @Value("${jpashop.query.async.queue-capacity:100}") int queueCapacity) {
+        this.orderQueryRepository = orderQueryRepository;
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> new Thread(r, "order-query-" + sequence.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * lastOrderId 이후 최대 limit건 (o.id 순, lastOrderId가 null이면 처음부터)
+     *  - 범위 상한(toOrderId)을 먼저 조회한 후 (PK 인덱스만 읽음), 같은 범위로 쿼리 3개를 동시에 실행
+     */
+    public CompletableFuture<List<OrderQueryDto>> findAllByDto_async(Long lastOrderId, int limit) {
+        return supplyReadOnly(() -> orderQueryRepository.findToOrderId(lastOrderId, limit))
+                .thenCompose(toOrderId -> toOrderId == null
+                        ? CompletableFuture.completedFuture(List.of())
+                        : findRange(lastOrderId, toOrderId));
+    }
+
+    private CompletableFuture<List<OrderQueryDto>> findRange(Long lastOrderId, Long toOrderId) {
+        CompletableFuture<List<OrderQueryDto>> orders = supplyReadOnly(() -> orderQueryRepository.findOrderHeaders(lastOrderId, toOrderId));
+        CompletableFuture<Map<Long, Address>> addresses = supplyReadOnly(() -> orderQueryRepository.findDeliveryAddressMap(lastOrderId, toOrderId));
+        CompletableFuture<Map<Long, List<OrderItemQueryDto>>> orderItems = supplyReadOnly(() -> orderQueryRepository.findOrderItemMapInRange(lastOrderId, toOrderId));
+
+        return CompletableFuture.allOf(orders, addresses, orderItems)
+                .thenApply(v -> {
+                    Map<Long, Address> addressMap = addresses.join();
+                    Map<Long, List<OrderItemQueryDto>> orderItemMap = orderItems.join();
+
+                    List<OrderQueryDto> result = orders.join();
+                    for (OrderQueryDto o : result) {
+                        o.setAddress(addressMap.get(o.getOrderId()));
+                        o.setOrderItems(orderItemMap.getOrDefault(o.getOrderId(), List.of()));
+                    }
+
+                    return result;
+                });
+    }
+
+    /**
+     * 스레드 풀에서 읽기 전용 트랜잭션으로 실행
+     */
+    private <T> CompletableFuture<T> supplyReadOnly(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> query.get()), executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
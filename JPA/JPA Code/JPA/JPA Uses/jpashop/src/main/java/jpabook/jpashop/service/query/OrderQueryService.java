@@ -2,11 +2,15 @@ package jpabook.jpashop.service.query;
 
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -14,6 +18,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class OrderQueryService {
     private final OrderRepository orderRepository;
+    private final OrderQueryRepository orderQueryRepository;
 
     public List<OrderDto> ordersV3() {
         List<Order> orders = orderRepository.findAllWithItem();
@@ -24,4 +29,19 @@ public class OrderQueryService {
 
         return result;
     }
+
+    /**
+     * 전체 주문 내보내기
+     *  - 스트리밍하는 동안 커넥션을 유지해야 하므로, 읽기 전용 트랜잭션 안에서 처리
+     */
+    public void exportOrders(int chunkSize, Consumer<OrderQueryDto> consumer) {
+        orderQueryRepository.streamAllByDto(chunkSize, consumer);
+    }
+
+    /**
+     * 전체 주문 플랫 데이터를 한 행씩 전달 (V7, 읽기 전용 트랜잭션 안에서 처리)
+     */
+    public void streamFlatOrders(RowCallbackHandler handler) {
+        orderQueryRepository.streamAllByFlatRows(handler);
+    }
 }
@@ -0,0 +1,79 @@
+package jpabook.jpashop;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.repository.MemberNameIndex;
+import jpabook.jpashop.repository.order.summary.OrderSummaryProjector;
+import jpabook.jpashop.service.OrderCommand;
+import jpabook.jpashop.service.OrderService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 대량 데이터 생성 (InitDb 2건 + 회원 2,000명 x 주문 3건 x 주문상품 2개)
+ *  - 시작 시 생성하므로 별도의 스프링 컨텍스트(= 별도의 메모리 DB)에서 실행, 테스트 후 컨텍스트 종료
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "jpashop.init.bulk.enabled=true",
+        "jpashop.init.bulk.members=2000",
+        "jpashop.init.bulk.items=100",
+        "jpashop.init.bulk.orders-per-member=3",
+        "jpashop.init.bulk.items-per-order=2",
+        "jpashop.init.bulk.partitions=4",
+        "jpashop.init.bulk.batch-size=500"
+})
+@DirtiesContext
+public class BulkDataGeneratorTest {
+
+    @Autowired EntityManager em;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired OrderService orderService;
+    @Autowired OrderSummaryProjector orderSummaryProjector;
+    @Autowired MemberNameIndex memberNameIndex;
+
+    @Test
+    public void 대량데이터_생성() throws Exception {
+        // then : InitDb (회원 2, 상품 4, 주문 2, 주문상품 4) + 대량 데이터
+        assertEquals(2 + 2000, count("member"));
+        assertEquals(4 + 100, count("item"));
+        assertEquals(2 + 2000 * 3, count("orders"));
+        assertEquals(2 + 2000 * 3, count("delivery"));
+        assertEquals(4 + 2000 * 3 * 2, count("order_item"));
+        assertEquals("주문 요약 읽기 모델도 함께 만들어져야 한다.", 2 + 2000 * 3, count("order_summary"));
+        assertEquals(0, orderSummaryProjector.countDrift());
+        assertTrue("시작 완료 후 만든 회원 이름 인덱스에 포함되어야 한다.",
+                memberNameIndex.findMemberIds("2000").map(ids -> !ids.isEmpty()).orElse(false));
+    }
+
+    @Test
+    @Transactional
+    public void 대량데이터_이후_JPA_저장_ID_충돌없음() throws Exception {
+        // given
+        Long memberId = jdbcTemplate.queryForObject("SELECT MAX(member_id) FROM member", Long.class);
+        Long itemId = jdbcTemplate.queryForObject("SELECT MAX(item_id) FROM item", Long.class);
+
+        // when : 시퀀스로 ID를 할당하는 JPA 저장 (InitDb 때 할당받은 ID 구간을 넘어서 시퀀스를 다시 호출할 만큼)
+        List<Long> orderIds = orderService.orderAll(Collections.nCopies(200, new OrderCommand(memberId, itemId, 1)));
+        em.flush(); // PK 중복이면 예외
+
+        // then
+        assertEquals(200, new HashSet<>(orderIds).size());
+        assertEquals(2 + 2000 * 3 + 200, count("orders"));
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
@@ -0,0 +1,178 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.monitor.QueryCountScope;
+import jpabook.jpashop.monitor.QueryCounter;
+import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.OrderSearch;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class OrderApiControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired QueryCounter queryCounter;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired OrderRepository orderRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    @Test
+    public void 주문_내보내기() throws Exception {
+        String body = mockMvc.perform(get("/api/orders/export"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+
+        // InitDb : 주문 2건 (userA, userB)
+        assertEquals("한 줄에 주문 1건이어야 한다.", 2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"name\":\"userA\""));
+        assertTrue(lines[1].startsWith("{") && lines[1].contains("\"itemName\":\"SPRING BOOK1\""));
+    }
+
+    @Test
+    public void V6_주문_기준_페이징() throws Exception {
+        mockMvc.perform(get("/api/v6/orders").param("offset", "1").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("userB"))
+                .andExpect(jsonPath("$[0].orderItems.length()").value(2));
+
+        mockMvc.perform(get("/api/v6/orders").param("offset", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v6/orders").param("limit", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v6/orders").param("limit", "1001")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void 페이징_파라미터_검증() throws Exception {
+        mockMvc.perform(get("/api/v3.2/orders").param("limit", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v3.2/orders").param("limit", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v3.2/orders").param("limit", String.valueOf(Integer.MAX_VALUE))).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v3.2/orders").param("after", "잘못된토큰")).andExpect(status().isBadRequest());
+
+        // 다음 페이지 토큰으로 조회
+        mockMvc.perform(get("/api/v3.2/orders").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.next").isNotEmpty());
+    }
+
+    @Test
+    public void 대량주문_요청_검증() throws Exception {
+        String[] invalid = {
+                "{\"orders\":[{\"itemId\":1,\"count\":1}]}", // memberId 없음
+                "{\"orders\":[{\"memberId\":1,\"count\":1}]}", // itemId 없음
+                "{\"orders\":[{\"memberId\":1,\"itemId\":1,\"count\":0}]}", // 수량 0
+                "{\"orders\":[]}"
+        };
+
+        for (String body : invalid) {
+            mockMvc.perform(post("/api/orders/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    public void V4_쿼리수() throws Exception {
+        // InitDb : 주문 2건 -> 주문 1번 + 주문별 주문상품 1번씩 (1 + N)
+        try (QueryCountScope scope = queryCounter.start()) {
+            mockMvc.perform(get("/api/v4/orders")).andExpect(status().isOk());
+
+            scope.assertQueryCount(3);
+        }
+    }
+
+    @Test
+    public void V5_쿼리수() throws Exception {
+        // 주문 1번 + 주문상품 IN 1번 (1 + 1)
+        try (QueryCountScope scope = queryCounter.start()) {
+            mockMvc.perform(get("/api/v5/orders")).andExpect(status().isOk());
+
+            assertEquals(2, scope.getCount());
+            scope.assertNoRepeatedStatements(2);
+        }
+    }
+
+    @Test
+    public void V5_1_비동기_조회() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v5.1/orders"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].address.city").exists())
+                .andExpect(jsonPath("$.data[0].orderItems.length()").value(2))
+                .andExpect(jsonPath("$.data[1].orderItems.length()").value(2))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        // 다음 페이지 토큰으로 조회 : 두 번째 주문만
+        MvcResult first = mockMvc.perform(get("/api/v5.1/orders").param("limit", "1")).andReturn();
+        String next = objectMapper.readTree(mockMvc.perform(asyncDispatch(first)).andReturn().getResponse().getContentAsString())
+                .get("next").asText();
+
+        MvcResult second = mockMvc.perform(get("/api/v5.1/orders").param("after", next).param("limit", "1")).andReturn();
+        mockMvc.perform(asyncDispatch(second))
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].orderItems.length()").value(2))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    public void V7_쿼리수() throws Exception {
+        // JdbcTemplate으로 실행한 SQL도 DataSource(p6spy) 단계에서 셈 : 플랫 조회 1번
+        try (QueryCountScope scope = queryCounter.start()) {
+            mockMvc.perform(get("/api/v7/orders")).andExpect(status().isOk());
+
+            assertEquals(1, scope.getCount());
+        }
+    }
+
+    @Test
+    public void V7_DTO없이_JSON_쓰기() throws Exception {
+        String v6 = mockMvc.perform(get("/api/v6/orders"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String v7 = mockMvc.perform(get("/api/v7/orders"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals("V6(DTO + Jackson)와 같은 JSON이어야 한다.", objectMapper.readTree(v6), objectMapper.readTree(v7));
+    }
+
+    @Test
+    public void DTO_병렬_변환_가능_여부() throws Exception {
+        // 영속성 컨텍스트를 나누어서 조회 (같은 영속성 컨텍스트면 먼저 조회한 엔티티가 이미 초기화됨)
+        transactionTemplate.executeWithoutResult(status ->
+                assertTrue("Fetch Join으로 모두 조회하면 병렬 변환 가능",
+                        orderRepository.findAllWithItem().stream().allMatch(OrderApiController.OrderDto::isFetched)));
+
+        transactionTemplate.executeWithoutResult(status ->
+                assertFalse("지연 로딩할 연관관계가 남아 있으면 병렬 변환 불가",
+                        orderRepository.findAllByString(new OrderSearch()).stream().anyMatch(OrderApiController.OrderDto::isFetched)));
+    }
+}
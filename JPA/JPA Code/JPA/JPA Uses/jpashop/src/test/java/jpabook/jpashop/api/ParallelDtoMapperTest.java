@@ -0,0 +1,54 @@
+package jpabook.jpashop.api;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class ParallelDtoMapperTest {
+
+    ParallelDtoMapper mapper = new ParallelDtoMapper(true, 100, 2);
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    @After
+    public void tearDown() {
+        mapper.shutdown();
+    }
+
+    @Test
+    public void 병렬_변환_순서_유지() throws Exception {
+        List<Integer> source = IntStream.range(0, 1000).boxed().toList();
+
+        List<String> result = mapper.map(source, this::convert, i -> true);
+
+        assertEquals(IntStream.range(0, 1000).mapToObj(String::valueOf).toList(), result);
+        assertFalse("요청 스레드가 아닌 ForkJoinPool에서 변환해야 한다.", threads.contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    public void 초기화되지_않은_프록시가_있으면_순차_변환() throws Exception {
+        List<Integer> source = IntStream.range(0, 1000).boxed().toList();
+
+        List<String> result = mapper.map(source, this::convert, i -> i != 500);
+
+        assertEquals(1000, result.size());
+        assertEquals("요청 스레드에서만 변환해야 한다.", Set.of(Thread.currentThread().getName()), threads);
+    }
+
+    @Test
+    public void threshold_미만은_순차_변환() throws Exception {
+        mapper.map(IntStream.range(0, 99).boxed().toList(), this::convert, i -> true);
+
+        assertEquals(Set.of(Thread.currentThread().getName()), threads);
+    }
+
+    private String convert(Integer i) {
+        threads.add(Thread.currentThread().getName());
+        return String.valueOf(i);
+    }
+}
@@ -0,0 +1,112 @@
+package jpabook.jpashop.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import jpabook.jpashop.service.MemberService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * primary / replica 라우팅
+ *  - primary : 테스트용 메모리 DB, replica : 별도의 메모리 DB (replicate()로 primary를 통째로 복사해서 복제를 흉내)
+ *  - 지연 측정은 테스트에서 직접 실행 (lag-check-interval-ms를 크게 설정)
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "jpashop.datasource.replica.enabled=true",
+        "decorator.datasource.exclude-beans=lazyRoutingDataSource,routingDataSource",
+        "jpashop.datasource.replica.url=" + ReplicationRoutingDataSourceTest.REPLICA_URL,
+        "jpashop.datasource.replica.max-lag-ms=1000",
+        "jpashop.datasource.replica.lag-check-interval-ms=3600000",
+        "spring.datasource.hikari.maximum-pool-size=7"})
+public class ReplicationRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+    static final String NAME_SQL = "SELECT name FROM member WHERE member_id = 1";
+
+    @Autowired MemberService memberService;
+    @Autowired ReplicaLagMonitor replicaLagMonitor;
+    @Autowired EntityManagerFactory emf;
+    @Autowired @Qualifier("primaryDataSource") DataSource primaryDataSource;
+
+    JdbcTemplate primary;
+    JdbcTemplate replica;
+
+    @Before
+    public void replicate() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "")); // 애플리케이션의 replica 커넥션 풀과 별개
+
+        // primary 전체(스키마 + 데이터 + heartbeat)를 replica로 복사
+        List<String> script = primary.queryForList("SCRIPT", String.class);
+        replica.execute("DROP ALL OBJECTS");
+        script.forEach(replica::execute);
+
+        emf.getCache().evictAll(); // 2차 캐시가 아닌 DB에서 읽도록
+        replicaLagMonitor.check();
+    }
+
+    @Test
+    public void 읽기전용_트랜잭션은_replica() throws Exception {
+        // given : replica에만 있는 값 (어느 DB에서 읽었는지 구분)
+        replica.update("UPDATE member SET name = 'replica' WHERE member_id = 1");
+        assertTrue(replicaLagMonitor.isReplicaAvailable());
+
+        // when
+        String readName = memberService.findOne(1L).getName(); // @Transactional(readOnly = true)
+        memberService.update(1L, "primary"); // @Transactional
+
+        // then
+        assertEquals("readOnly 트랜잭션은 replica에서 읽어야 한다.", "replica", readName);
+        assertEquals("쓰기 트랜잭션은 primary에 반영되어야 한다.", "primary", primary.queryForObject(NAME_SQL, String.class));
+        assertEquals("replica", replica.queryForObject(NAME_SQL, String.class));
+    }
+
+    @Test
+    public void primary_커넥션풀_설정() throws Exception {
+        assertEquals("spring.datasource.hikari.* 설정이 적용되어야 한다.", 7, primaryDataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+    }
+
+    @Test
+    public void replica_지연시_primary에서_읽기() throws Exception {
+        // given : replica에만 있는 값 + 복제 10초 지연
+        String primaryName = primary.queryForObject(NAME_SQL, String.class);
+        replica.update("UPDATE member SET name = 'replica' WHERE member_id = 1");
+        replica.update("UPDATE replica_heartbeat SET beat_at = beat_at - 10000");
+
+        // when
+        replicaLagMonitor.check();
+        String readName = memberService.findOne(1L).getName();
+
+        // then
+        assertFalse(replicaLagMonitor.isReplicaAvailable());
+        assertEquals("replica가 지연되면 primary에서 읽어야 한다.", primaryName, readName);
+    }
+
+    @Test
+    public void replica_연결불가시_primary에서_읽기() throws Exception {
+        // given
+        String primaryName = primary.queryForObject(NAME_SQL, String.class);
+        replica.execute("DROP ALL OBJECTS");
+
+        // when
+        replicaLagMonitor.check();
+        String readName = memberService.findOne(1L).getName();
+
+        // then
+        assertFalse(replicaLagMonitor.isReplicaAvailable());
+        assertEquals(primaryName, readName);
+    }
+}
@@ -0,0 +1,76 @@
+package jpabook.jpashop.repository;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class CategorySnapshotTest {
+
+    CategorySnapshot snapshot;
+
+    /**
+     * 1 (도서)
+     *  ├ 2 (IT)
+     *  │  └ 4 (JPA)
+     *  └ 3 (소설)
+     * 5 (음반)
+     */
+    @Before
+    public void setUp() {
+        Map<Long, Long> parents = new HashMap<>();
+        parents.put(1L, null);
+        parents.put(2L, 1L);
+        parents.put(3L, 1L);
+        parents.put(4L, 2L);
+        parents.put(5L, null);
+
+        snapshot = CategorySnapshot.build(parents, Map.of(
+                1L, List.of(10L),
+                2L, List.of(20L),
+                3L, List.of(30L),
+                4L, List.of(40L, 20L), // 상위 카테고리와 같은 상품
+                5L, List.of(50L)));
+    }
+
+    @Test
+    public void 하위_트리_포함_여부() throws Exception {
+        assertTrue(snapshot.isInSubtree(1L, 4L));
+        assertTrue("자기 자신도 포함", snapshot.isInSubtree(2L, 2L));
+        assertFalse("형제 카테고리", snapshot.isInSubtree(2L, 3L));
+        assertFalse("상위 카테고리", snapshot.isInSubtree(4L, 1L));
+        assertFalse("다른 루트", snapshot.isInSubtree(1L, 5L));
+        assertFalse("없는 카테고리", snapshot.isInSubtree(1L, 99L));
+    }
+
+    @Test
+    public void 하위_트리_카테고리와_상품() throws Exception {
+        assertEquals(List.of(1L, 2L, 4L, 3L), snapshot.findSubtreeCategoryIds(1L));
+        assertEquals(List.of(2L, 4L), snapshot.findSubtreeCategoryIds(2L));
+
+        assertEquals(Set.of(10L, 20L, 30L, 40L), snapshot.findSubtreeItemIds(1L));
+        assertEquals("중복 상품은 한 번만", 2, snapshot.findSubtreeItemIds(2L).size());
+        assertEquals(Set.of(50L), snapshot.findSubtreeItemIds(5L));
+        assertEquals(Set.of(), snapshot.findSubtreeItemIds(99L));
+    }
+
+    @Test
+    public void 순환_카테고리는_제외() throws Exception {
+        // 6 -> 7 -> 6 : 루트에서 닿을 수 없음
+        Map<Long, Long> parents = new HashMap<>();
+        parents.put(1L, null);
+        parents.put(6L, 7L);
+        parents.put(7L, 6L);
+
+        CategorySnapshot cyclic = CategorySnapshot.build(parents, Map.of());
+
+        assertEquals(1, cyclic.size());
+        assertFalse(cyclic.contains(6L));
+        assertEquals(List.of(), cyclic.findSubtreeCategoryIds(6L));
+    }
+}
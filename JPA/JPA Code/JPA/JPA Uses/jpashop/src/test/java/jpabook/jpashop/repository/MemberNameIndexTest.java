@@ -0,0 +1,116 @@
+package jpabook.jpashop.repository;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class MemberNameIndexTest {
+
+    MemberNameIndex index;
+
+    @Before
+    public void setUp() {
+        index = new MemberNameIndex(null, true, 2);
+    }
+
+    @Test
+    public void 인덱스_생성_전에는_사용_불가() throws Exception {
+        index.put(1L, "userA");
+
+        assertEquals("cold 상태에서는 LIKE로 검색해야 한다.", Optional.empty(), index.findMemberIds("userA"));
+    }
+
+    @Test
+    public void 이름_포함_검색() throws Exception {
+        // given
+        index.rebuild(Map.of(1L, "userA", 2L, "userB", 3L, "kim"));
+
+        // then
+        assertEquals(Set.of(1L, 2L), index.findMemberIds("user").get());
+        assertEquals(Set.of(2L), index.findMemberIds("serB").get());
+        assertEquals("없는 trigram", Set.of(), index.findMemberIds("lee").get());
+        assertEquals("trigram은 모두 있지만 연속되지 않음", Set.of(), index.findMemberIds("userAuser").get());
+        assertEquals("3글자 미만은 LIKE로 검색해야 한다.", Optional.empty(), index.findMemberIds("us"));
+        assertEquals("LIKE 와일드카드가 있으면 LIKE로 검색해야 한다.", Optional.empty(), index.findMemberIds("user_"));
+        assertEquals(Optional.empty(), index.findMemberIds("us%A"));
+    }
+
+    @Test
+    public void 이름_변경() throws Exception {
+        // given
+        index.rebuild(Map.of(1L, "userA"));
+
+        // when
+        index.putAfterCommit(1L, "kimA"); // 트랜잭션 밖이면 바로 반영
+
+        // then
+        assertEquals(Set.of(), index.findMemberIds("user").get());
+        assertEquals(Set.of(1L), index.findMemberIds("kimA").get());
+    }
+
+    @Test
+    public void 후보가_너무_많으면_사용_불가() throws Exception {
+        // given : max-ids = 2
+        index.rebuild(Map.of(1L, "userA", 2L, "userB", 3L, "userC"));
+
+        // then
+        assertEquals(Optional.empty(), index.findMemberIds("user"));
+    }
+
+    @Test
+    public void 변경이_많으면_다시_만들어도_같은_결과() throws Exception {
+        // given
+        index.rebuild(Map.of(1L, "userA", 2L, "kimB"));
+
+        // when : COMPACT_THRESHOLD를 넘도록 변경 (base를 다시 만듦)
+        for (long id = 10; id < 10 + MemberNameSnapshot.COMPACT_THRESHOLD; id++) {
+            index.put(id, "park" + id);
+        }
+        index.put(1L, null); // 탈퇴
+        index.put(2L, "leeB");
+
+        // then
+        assertEquals(Set.of(), index.findMemberIds("userA").get());
+        assertEquals(Set.of(), index.findMemberIds("kimB").get());
+        assertEquals(Set.of(2L), index.findMemberIds("leeB").get());
+        assertEquals(Set.of(42L), index.findMemberIds("park42").get());
+    }
+
+    @Test
+    public void 다시_만드는_중에도_조회() throws Exception {
+        // given
+        Map<Long, String> members = new HashMap<>();
+        for (long id = 1; id <= 1_000; id++) {
+            members.put(id, "member" + id);
+        }
+        index = new MemberNameIndex(null, true, 10);
+        index.rebuild(members);
+
+        // when : 다른 스레드에서 계속 다시 만들고 이름을 수정
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (long i = 0; running.get(); i++) {
+                index.rebuild(members);
+                index.put(500 + i % 100, "member" + (500 + i % 100));
+            }
+        });
+        writer.start();
+
+        // then : 항상 완성된 스냅샷 하나만 보므로 결과가 같아야 함
+        try {
+            for (int i = 0; i < 10_000; i++) {
+                assertEquals(Optional.of(Set.of(777L)), index.findMemberIds("member777"));
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+}
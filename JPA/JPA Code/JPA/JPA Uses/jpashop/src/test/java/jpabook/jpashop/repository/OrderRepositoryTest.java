@@ -0,0 +1,94 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.api.OrderCursor;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.item.Book;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Transactional
+public class OrderRepositoryTest {
+
+    @Autowired EntityManager em;
+    @Autowired OrderRepository orderRepository;
+
+    @Test
+    public void Keyset_페이징() throws Exception {
+        // given
+        for(int i = 0; i < 5; i++) {
+            createOrder("회원" + i);
+        }
+        em.flush();
+        em.clear();
+
+        List<Long> allIds = orderRepository.findAllWithMemberDelivery(null, Integer.MAX_VALUE).stream()
+                .map(Order::getId)
+                .collect(Collectors.toList());
+
+        // when
+        List<Long> pagedIds = new ArrayList<>();
+        Long lastOrderId = null;
+        while(true) {
+            List<Order> page = orderRepository.findAllWithMemberDelivery(lastOrderId, 2);
+            if(page.isEmpty()) {
+                break;
+            }
+
+            page.forEach(o -> pagedIds.add(o.getId()));
+            lastOrderId = page.get(page.size() - 1).getId();
+        }
+
+        // then
+        assertEquals("페이지를 모두 이어 붙이면 전체 조회 결과와 같아야 한다.", allIds, pagedIds);
+        assertEquals("id 순으로 정렬되어야 한다.", allIds.stream().sorted().collect(Collectors.toList()), allIds);
+    }
+
+    @Test
+    public void 페이지_토큰() throws Exception {
+        String token = OrderCursor.encode(42L);
+
+        assertEquals(Long.valueOf(42L), OrderCursor.decode(token));
+        assertNull(OrderCursor.decode(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void 잘못된_페이지_토큰() throws Exception {
+        OrderCursor.decode("not-a-token");
+    }
+
+    private void createOrder(String memberName) {
+        Member member = new Member();
+        member.setName(memberName);
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        em.persist(book);
+
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+
+        Order order = Order.createOrder(member, delivery, OrderItem.createOrderItem(book, 10000, 1));
+        em.persist(order);
+    }
+}
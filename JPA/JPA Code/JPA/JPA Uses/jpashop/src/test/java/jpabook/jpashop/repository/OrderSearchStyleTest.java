@@ -0,0 +1,95 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * 동적 검색 3가지 방식 (문자열 JPQL / Criteria / Querydsl) : 결과, Hibernate 쿼리 계획 캐시 적중
+ *  - 처리량 비교는 OrderSearchStyleBenchmark (src/jmh)
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class OrderSearchStyleTest {
+
+    static final int SEARCHES = 20;
+
+    @Autowired OrderRepository orderRepository;
+    @Autowired MemberNameIndex memberNameIndex;
+    @Autowired EntityManagerFactory emf;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    @Test
+    public void 검색_모양별_결과_동일() throws Exception {
+        assertTrue("Criteria, Querydsl은 회원 이름 인덱스로 검색해야 한다.", memberNameIndex.isReady());
+
+        for (OrderSearch orderSearch : searches()) {
+            List<Long> byString = ids(orderRepository.findAllByString(orderSearch));
+
+            assertEquals(OrderSearchShape.of(orderSearch) + " : Criteria", byString, ids(orderRepository.findAllByCriteria(orderSearch)));
+            assertEquals(OrderSearchShape.of(orderSearch) + " : Querydsl", byString, ids(orderRepository.findAll(orderSearch)));
+        }
+    }
+
+    @Test
+    public void 검색_방식별_쿼리계획_재사용() throws Exception {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        // 모양마다 한 번씩 검색한 후에는, 모양이 같은 검색은 모두 쿼리 계획을 재사용해야 함
+        assertEquals("JPQL", 0, planCacheMisses("JPQL", orderRepository::findAllByString, statistics));
+        assertEquals("Criteria", 0, planCacheMisses("Criteria", orderRepository::findAllByCriteria, statistics));
+        assertEquals("Querydsl", 0, planCacheMisses("Querydsl", orderRepository::findAll, statistics));
+    }
+
+    private long planCacheMisses(String style, Function<OrderSearch, List<Order>> search, Statistics statistics) {
+        List<OrderSearch> searches = searches();
+        searches.forEach(orderSearch -> transactionTemplate.executeWithoutResult(status -> search.apply(orderSearch)));
+
+        statistics.clear();
+        for (int i = 0; i < SEARCHES; i++) {
+            OrderSearch orderSearch = searches.get(i % searches.size());
+            transactionTemplate.executeWithoutResult(status -> search.apply(orderSearch));
+        }
+
+        assertTrue(style + " : 쿼리 계획 캐시를 거쳐야 한다.", statistics.getQueryPlanCacheHitCount() >= SEARCHES);
+        return statistics.getQueryPlanCacheMissCount();
+    }
+
+    private static List<OrderSearch> searches() {
+        List<OrderSearch> searches = new ArrayList<>();
+        for (OrderSearchShape shape : OrderSearchShape.values()) {
+            if(shape.usesMemberIds()) {
+                continue; // 회원 이름 인덱스 사용 여부는 검색 시 결정
+            }
+
+            OrderSearch orderSearch = new OrderSearch();
+            if(shape.hasStatus()) {
+                orderSearch.setOrderStatus(OrderStatus.ORDER);
+            }
+            if(shape.hasName()) {
+                orderSearch.setMemberName("userA");
+            }
+            searches.add(orderSearch);
+        }
+        return searches;
+    }
+
+    private static List<Long> ids(List<Order> orders) {
+        return orders.stream().map(Order::getId).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,51 @@
+package jpabook.jpashop.repository.order.query;
+
+import jpabook.jpashop.domain.OrderStatus;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class OrderFlatAssemblerTest {
+
+    private final List<OrderFlatDto> rows = List.of(
+            row(3L, "JPA BOOK1"), row(3L, "JPA BOOK2"),
+            row(1L, "SPRING BOOK1"),
+            row(7L, "SPRING BOOK2"), row(7L, "JPA BOOK1"), row(7L, "JPA BOOK2"));
+
+    @Test
+    public void 연속된_행을_주문으로_접기() throws Exception {
+        // when
+        List<OrderQueryDto> result = OrderFlatAssembler.assemble(rows.iterator(), 0, Integer.MAX_VALUE);
+
+        // then
+        assertEquals("입력 순서를 유지해야 한다.", List.of(3L, 1L, 7L), orderIds(result));
+        assertEquals(2, result.get(0).getOrderItems().size());
+        assertEquals(1, result.get(1).getOrderItems().size());
+        assertEquals(List.of("SPRING BOOK2", "JPA BOOK1", "JPA BOOK2"),
+                result.get(2).getOrderItems().stream().map(OrderItemQueryDto::getItemName).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void 주문_기준_페이징() throws Exception {
+        // when
+        List<OrderQueryDto> result = OrderFlatAssembler.assemble(rows.iterator(), 1, 1);
+
+        // then
+        assertEquals(List.of(1L), orderIds(result));
+        assertEquals(1, result.get(0).getOrderItems().size());
+        assertEquals(List.of(7L), orderIds(OrderFlatAssembler.assemble(rows.iterator(), 2, 10)));
+        assertTrue(OrderFlatAssembler.assemble(rows.iterator(), 3, 10).isEmpty());
+    }
+
+    private List<Long> orderIds(List<OrderQueryDto> result) {
+        return result.stream().map(OrderQueryDto::getOrderId).collect(Collectors.toList());
+    }
+
+    private OrderFlatDto row(Long orderId, String itemName) {
+        return new OrderFlatDto(orderId, "userA", LocalDateTime.now(), OrderStatus.ORDER, null, itemName, 10000, 1);
+    }
+}
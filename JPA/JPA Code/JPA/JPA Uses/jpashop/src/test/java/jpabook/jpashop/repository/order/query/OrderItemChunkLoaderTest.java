@@ -0,0 +1,49 @@
+package jpabook.jpashop.repository.order.query;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.*;
+
+public class OrderItemChunkLoaderTest {
+
+    @Test
+    public void 고정_크기_chunk() throws Exception {
+        // given
+        List<Long> orderIds = LongStream.rangeClosed(1, 300).boxed().collect(Collectors.toList());
+
+        // when
+        List<List<Long>> chunks = OrderItemChunkLoader.chunk(orderIds);
+
+        // then
+        assertEquals(2, chunks.size());
+        assertEquals(256, chunks.get(0).size());
+        assertEquals("44개는 64개로 채워야 한다.", 64, chunks.get(1).size());
+        assertEquals("채운 자리는 마지막 id여야 한다.", Long.valueOf(300L), chunks.get(1).get(63));
+    }
+
+    @Test
+    public void 중복_id_제거() throws Exception {
+        List<List<Long>> chunks = OrderItemChunkLoader.chunk(List.of(1L, 1L, 2L));
+
+        assertEquals(1, chunks.size());
+        assertEquals(16, chunks.get(0).size());
+        assertEquals(List.of(1L, 2L), chunks.get(0).stream().distinct().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void chunk_크기는_2의_거듭제곱() throws Exception {
+        // in_clause_parameter_padding이 켜져 있어도 채운 chunk를 다시 채우지 않아야 SQL이 3가지로 유지됨
+        for (int chunkSize : OrderItemChunkLoader.CHUNK_SIZES) {
+            assertEquals(chunkSize + "은 2의 거듭제곱이어야 한다.", 1, Integer.bitCount(chunkSize));
+        }
+    }
+
+    @Test
+    public void 빈_목록() throws Exception {
+        assertTrue(OrderItemChunkLoader.chunk(List.of()).isEmpty());
+    }
+}
@@ -0,0 +1,42 @@
+package jpabook.jpashop.repository.order.query;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Transactional
+public class OrderQueryRepositoryTest {
+
+    @Autowired OrderQueryRepository orderQueryRepository;
+
+    @Test
+    public void 스트리밍_조회() throws Exception {
+        // given
+        List<OrderQueryDto> expected = orderQueryRepository.findAllByDto_optimization();
+
+        // when : chunk 크기를 1로 주어 chunk 경계마다 컬렉션 조회와 초기화가 일어나도록 함
+        List<OrderQueryDto> streamed = new ArrayList<>();
+        orderQueryRepository.streamAllByDto(1, streamed::add);
+
+        // then
+        assertEquals("전체 주문이 id 순으로 조회되어야 한다.",
+                expected.stream().map(OrderQueryDto::getOrderId).sorted().collect(Collectors.toList()),
+                streamed.stream().map(OrderQueryDto::getOrderId).collect(Collectors.toList()));
+
+        for (OrderQueryDto o : streamed) {
+            OrderQueryDto e = expected.stream().filter(x -> x.getOrderId().equals(o.getOrderId())).findFirst().get();
+            assertEquals("주문 상품도 함께 조회되어야 한다.", e.getOrderItems(), o.getOrderItems());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package jpabook.jpashop.repository.order.summary;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.OrderSummary;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryRepository;
+import jpabook.jpashop.repository.order.simplequery.OrderSummaryQueryDto;
+import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.OrderService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Transactional
+public class OrderSummaryProjectorTest {
+
+    @Autowired EntityManager em;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired OrderSummaryProjector orderSummaryProjector;
+    @Autowired OrderSimpleQueryRepository orderSimpleQueryRepository;
+
+    @Test
+    public void 주문생성_읽기모델_반영() throws Exception {
+        // given
+        Long[] ids = createMemberAndBook();
+
+        // when
+        Long orderId = orderService.order(ids[0], ids[1], 3);
+        em.flush(); // 주문 INSERT -> @PostPersist (주문 요약 INSERT는 커밋 전까지 모아 둠)
+        orderSummaryProjector.flush(); // 커밋 전에 같은 트랜잭션에서 조회하므로 바로 반영
+
+        // then
+        OrderSummary summary = em.find(OrderSummary.class, orderId);
+        assertNotNull("주문 INSERT와 같은 트랜잭션에서 읽기 모델이 생성되어야 한다.", summary);
+        assertEquals("회원1", summary.getMemberName());
+        assertEquals(OrderStatus.ORDER, summary.getStatus());
+        assertEquals("서울", summary.getAddress().getCity());
+        assertEquals("전체 주문 가격은 가격 * 수량이다.", 10000 * 3, summary.getTotalPrice());
+        assertEquals(0, orderSummaryProjector.countDrift());
+    }
+
+    @Test
+    public void 주문취소_회원이름변경_읽기모델_반영() throws Exception {
+        // given
+        Long[] ids = createMemberAndBook();
+        Long orderId = orderService.order(ids[0], ids[1], 1);
+        em.flush();
+        em.clear(); // 주문, 취소는 각각 다른 트랜잭션 (재고를 조건부 UPDATE로 차감했으므로 상품을 DB에서 다시 읽음)
+
+        // when
+        orderService.cancelOrder(orderId);
+        memberService.update(ids[0], "회원2");
+        em.flush(); // 주문 UPDATE -> @PostUpdate
+        em.clear();
+
+        // then
+        List<OrderSummaryQueryDto> canceled = orderSimpleQueryRepository.findOrderSummaries(OrderStatus.CANCEL);
+        assertEquals(1, canceled.size());
+        assertEquals(orderId, canceled.get(0).getOrderId());
+        assertEquals("회원2", canceled.get(0).getName());
+        assertTrue(orderSimpleQueryRepository.findOrderSummaries(OrderStatus.ORDER).stream()
+                .noneMatch(dto -> dto.getOrderId().equals(orderId)));
+        assertEquals(0, orderSummaryProjector.countDrift());
+    }
+
+    @Test
+    public void 엔티티를_거치지_않은_변경은_재생성으로_복구() throws Exception {
+        // given
+        Long[] ids = createMemberAndBook();
+        Long orderId = orderService.order(ids[0], ids[1], 1);
+        em.flush();
+
+        // when : JDBC로 직접 변경 (엔티티 리스너 미호출)
+        jdbcTemplate.update("UPDATE orders SET status = 'CANCEL' WHERE order_id = ?", orderId);
+        jdbcTemplate.update("DELETE FROM order_summary WHERE order_id <> ?", orderId);
+
+        long drift = orderSummaryProjector.countDrift();
+        int rebuilt = orderSummaryProjector.rebuild();
+
+        // then
+        Long orders = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class);
+        assertTrue("원본과 다른 행이 있어야 한다.", drift > 0);
+        assertEquals(orders.intValue(), rebuilt);
+        assertEquals("재생성 후에는 원본과 같아야 한다.", 0, orderSummaryProjector.countDrift());
+        assertEquals(OrderStatus.CANCEL, em.find(OrderSummary.class, orderId).getStatus());
+    }
+
+    private Long[] createMemberAndBook() {
+        Member member = new Member();
+        member.setName("회원1");
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        em.persist(book);
+
+        return new Long[]{member.getId(), book.getId()};
+    }
+}
@@ -0,0 +1,106 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.monitor.QueryCountScope;
+import jpabook.jpashop.monitor.QueryCounter;
+import jpabook.jpashop.repository.CategoryTree;
+import jpabook.jpashop.repository.ItemRepository;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 스냅샷은 커밋 후 다시 만들어지므로, 테스트 트랜잭션(롤백) 없이 실행
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class CategoryServiceTest {
+
+    @Autowired CategoryService categoryService;
+    @Autowired CategoryTree categoryTree;
+    @Autowired ItemRepository itemRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired QueryCounter queryCounter;
+
+    @Test
+    public void 하위_카테고리_상품_조회() throws Exception {
+        // given : 도서 > IT > JPA
+        List<Long> itemIds = itemRepository.findAll().stream().map(Item::getId).toList();
+
+        Long book = categoryService.create("도서", null);
+        Long it = categoryService.create("IT", book);
+        Long jpa = categoryService.create("JPA", it);
+        categoryService.addItem(it, itemIds.get(0));
+        categoryService.addItem(jpa, itemIds.get(1));
+
+        // when
+        List<Item> items;
+        try (QueryCountScope scope = queryCounter.start()) {
+            items = categoryService.findItemsInSubtree(book);
+
+            // then
+            assertEquals("카테고리 깊이와 상관없이 상품 조회 1번이어야 한다.", 1, scope.getCount());
+        }
+
+        assertEquals(2, items.size());
+        assertEquals(List.of(book, it, jpa), categoryService.findSubtreeCategoryIds(book));
+        assertEquals(1, categoryService.findItemsInSubtree(jpa).size());
+    }
+
+    @Test
+    public void 카테고리_이동_후_스냅샷_교체() throws Exception {
+        // given
+        Long a = categoryService.create("A", null);
+        Long b = categoryService.create("B", null);
+        Long child = categoryService.create("A-1", a);
+
+        // when : 한 트랜잭션에서 여러 번 변경 -> 커밋 후 스냅샷 교체
+        transactionTemplate.executeWithoutResult(status -> {
+            categoryService.move(child, b);
+            categoryService.move(b, a);
+
+            assertTrue("커밋 전에는 이전 스냅샷이어야 한다.", categoryTree.snapshot().isInSubtree(a, child));
+            assertFalse(categoryTree.snapshot().isInSubtree(a, b));
+        });
+
+        // then : A > B > A-1
+        assertTrue(categoryTree.snapshot().isInSubtree(b, child));
+        assertTrue(categoryTree.snapshot().isInSubtree(a, child));
+        assertEquals(List.of(a, b, child), categoryService.findSubtreeCategoryIds(a));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void 하위_카테고리로_이동_불가() throws Exception {
+        Long parent = categoryService.create("부모", null);
+        Long child = categoryService.create("자식", parent);
+
+        categoryService.move(parent, child);
+    }
+
+    @Test
+    public void 같은_트랜잭션에서_순환_이동_불가() throws Exception {
+        // given
+        Long a = categoryService.create("A", null);
+        Long b = categoryService.create("B", null);
+
+        // when : B를 A 밑으로 이동한 후 (스냅샷은 아직 둘 다 루트), A를 B 밑으로 이동
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                categoryService.move(b, a);
+                categoryService.move(a, b);
+            });
+            fail("순환 예외가 발생해야 한다.");
+        } catch (IllegalStateException e) {
+            // then : 전체 롤백
+            assertEquals(List.of(a), categoryService.findSubtreeCategoryIds(a));
+            assertEquals(List.of(b), categoryService.findSubtreeCategoryIds(b));
+        }
+    }
+}
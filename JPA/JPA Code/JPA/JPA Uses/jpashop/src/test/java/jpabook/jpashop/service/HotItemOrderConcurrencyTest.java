@@ -0,0 +1,102 @@
+package jpabook.jpashop.service;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 인기 상품 1개에 동시 주문 (초과 판매 여부)
+ *  - 재고 100개, 8개 스레드에서 1개씩 총 200번 주문
+ *  - 재고 차감 방식(ATOMIC / OPTIMISTIC)마다 별도의 스프링 컨텍스트(= 별도의 메모리 DB)에서 실행
+ */
+@RunWith(Enclosed.class)
+public class HotItemOrderConcurrencyTest {
+
+    static final int STOCK = 100;
+    static final int THREADS = 8;
+    static final int ORDERS = 200;
+
+    @RunWith(SpringRunner.class)
+    @SpringBootTest(properties = "jpashop.order.stock-update=ATOMIC")
+    public static class Atomic extends HotItemOrderScenario {
+    }
+
+    @RunWith(SpringRunner.class)
+    @SpringBootTest(properties = {"jpashop.order.stock-update=OPTIMISTIC", "jpashop.order.optimistic-retry=1000"})
+    public static class Optimistic extends HotItemOrderScenario {
+    }
+
+    public abstract static class HotItemOrderScenario {
+
+        @Autowired EntityManager em;
+        @Autowired TransactionTemplate transactionTemplate;
+        @Autowired OrderFacade orderFacade;
+        @Autowired ItemService itemService;
+
+        @Test
+        public void 인기상품_동시주문() throws Exception {
+            // given
+            Long[] ids = transactionTemplate.execute(status -> {
+                Member member = new Member();
+                member.setName("회원1");
+                member.setAddress(new Address("서울", "강가", "123-123"));
+                em.persist(member);
+
+                Book book = new Book();
+                book.setName("시골 JPA");
+                book.setPrice(10000);
+                book.setStockQuantity(STOCK);
+                em.persist(book);
+
+                return new Long[]{member.getId(), book.getId()};
+            });
+
+            AtomicInteger success = new AtomicInteger();
+            AtomicInteger soldOut = new AtomicInteger();
+
+            // when
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int i = 0; i < ORDERS; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        orderFacade.order(ids[0], ids[1], 1);
+                        success.incrementAndGet();
+                    } catch (NotEnoughStockException e) {
+                        soldOut.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(); // 그 외 예외는 테스트 실패
+            }
+            executor.shutdown();
+
+            // then
+            int restStock = itemService.findOne(ids[1]).getStockQuantity();
+
+            assertEquals("초과 판매가 없어야 한다.", STOCK, success.get());
+            assertEquals(ORDERS - STOCK, soldOut.get());
+            assertEquals(0, restStock);
+        }
+    }
+}
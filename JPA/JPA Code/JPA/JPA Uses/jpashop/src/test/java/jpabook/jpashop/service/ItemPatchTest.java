@@ -0,0 +1,101 @@
+package jpabook.jpashop.service;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.monitor.QueryCountScope;
+import jpabook.jpashop.monitor.QueryCounter;
+import jpabook.jpashop.repository.ItemPatch;
+import jpabook.jpashop.repository.ItemRepository;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.Assert.*;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Transactional
+public class ItemPatchTest {
+
+    @Autowired EntityManager em;
+    @Autowired ItemService itemService;
+    @Autowired ItemRepository itemRepository;
+    @Autowired QueryCounter queryCounter;
+
+    @Test
+    public void 부분수정_조회없이_UPDATE_1번() throws Exception {
+        // given
+        Long itemId = createBook();
+
+        // when
+        try (QueryCountScope scope = queryCounter.start()) {
+            itemService.updateItem(itemId, new ItemPatch(null, 20000, null));
+
+            // then
+            assertEquals("SELECT 없이 UPDATE 1번이어야 한다.", 1, scope.getCount());
+        }
+
+        em.clear();
+        Item item = em.find(Item.class, itemId);
+        assertEquals(20000, item.getPrice());
+        assertEquals("변경하지 않은 항목은 그대로여야 한다.", "시골 JPA", item.getName());
+        assertEquals(10, item.getStockQuantity());
+        assertEquals("version이 증가해야 한다.", Long.valueOf(1), item.getVersion());
+    }
+
+    @Test
+    public void merge_대비_쿼리수() throws Exception {
+        // given
+        Long itemId = createBook();
+        em.getEntityManagerFactory().getCache().evict(Item.class); // 2차 캐시 없이 비교
+
+        Book detached = new Book();
+        detached.setId(itemId);
+        detached.setName("시골 JPA");
+        detached.setPrice(20000);
+        detached.setStockQuantity(10);
+        detached.setVersion(0L);
+
+        // when : merge (SELECT + 변경 감지 UPDATE)
+        long mergeCount;
+        try (QueryCountScope scope = queryCounter.start()) {
+            itemRepository.save(detached);
+            em.flush();
+            mergeCount = scope.getCount();
+        }
+        em.clear();
+
+        // when : patch (UPDATE)
+        long patchCount;
+        try (QueryCountScope scope = queryCounter.start()) {
+            itemRepository.patch(itemId, new ItemPatch(null, 30000, null));
+            patchCount = scope.getCount();
+        }
+
+        // then
+        assertEquals(2, mergeCount);
+        assertEquals("조회 1번이 줄어야 한다.", mergeCount - 1, patchCount);
+        assertEquals(30000, em.find(Item.class, itemId).getPrice());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void 없는_상품_부분수정() throws Exception {
+        itemService.updateItem(-1L, new ItemPatch("없음", null, null));
+    }
+
+    private Long createBook() {
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        em.persist(book);
+        em.flush();
+        em.clear();
+
+        return book.getId();
+    }
+}
@@ -0,0 +1,162 @@
+package jpabook.jpashop.service;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import jpabook.jpashop.repository.order.summary.OrderSummaryProjector;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * 단건 주문 반복 vs 대량 주문 (JDBC Statement 수 비교)
+ *  - Hibernate가 준비한 Statement 수 (Statistics) + DB에 실제로 보낸 횟수 (p6spy, JdbcTemplate으로 실행한 SQL 포함)
+ *  - 주문을 커밋하므로 별도의 스프링 컨텍스트(= 별도의 메모리 DB)에서 실행
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class OrderBatchTest {
+
+    static final int ORDERS = 500;
+
+    @Autowired EntityManager em;
+    @Autowired EntityManagerFactory emf;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired OrderService orderService;
+    @Autowired ItemService itemService;
+    @Autowired OrderSummaryProjector orderSummaryProjector;
+    @Autowired JdbcRoundTrips jdbcRoundTrips;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        JdbcRoundTrips jdbcRoundTrips() {
+            return new JdbcRoundTrips();
+        }
+    }
+
+    /**
+     * 테스트 스레드에서 DB에 보낸 횟수 (execute, executeQuery, executeUpdate는 1번씩, JDBC Batch는 묶음당 1번)
+     *  - p6spy가 JdbcEventListener 빈을 등록
+     */
+    static class JdbcRoundTrips extends SimpleJdbcEventListener {
+        private final AtomicLong count = new AtomicLong();
+        private volatile Thread thread;
+
+        void start() {
+            thread = Thread.currentThread();
+            count.set(0);
+        }
+
+        long get() {
+            return count.get();
+        }
+
+        @Override
+        public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+            if(Thread.currentThread() == thread) {
+                count.incrementAndGet();
+            }
+        }
+    }
+
+    @Test
+    public void 대량주문() throws Exception {
+        // given
+        Long[] ids = createMemberAndBook(ORDERS * 2);
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        // when : 단건 주문 반복
+        statistics.clear();
+        jdbcRoundTrips.start();
+        for (int i = 0; i < ORDERS; i++) {
+            orderService.order(ids[0], ids[1], 1);
+        }
+        long singleStatements = statistics.getPrepareStatementCount();
+        long singleRoundTrips = jdbcRoundTrips.get();
+
+        // when : 대량 주문
+        List<OrderCommand> commands = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            commands.add(new OrderCommand(ids[0], ids[1], 1));
+        }
+
+        statistics.clear();
+        jdbcRoundTrips.start();
+        List<Long> orderIds = orderService.orderAll(commands);
+        long batchStatements = statistics.getPrepareStatementCount();
+        long batchRoundTrips = jdbcRoundTrips.get();
+
+        // then
+        assertEquals(ORDERS, orderIds.size());
+        assertEquals("주문 수량만큼 재고가 줄어야 한다.", 0, itemService.findOne(ids[1]).getStockQuantity());
+        assertEquals(OrderStatus.ORDER, transactionTemplate.execute(status ->
+                em.createQuery("SELECT o.status FROM Order o WHERE o.id = :id", OrderStatus.class)
+                        .setParameter("id", orderIds.get(ORDERS - 1))
+                        .getSingleResult()));
+        assertTrue("대량 주문의 Statement 수가 더 적어야 한다.", batchStatements < singleStatements);
+        assertTrue("단건 주문은 주문마다 여러 번 보내야 한다. " + singleRoundTrips, singleRoundTrips >= ORDERS * 3L);
+        // 대량 주문 : 시퀀스 조회 (allocationSize 50) + 테이블별 batch_size(100) 묶음 + 주문 요약 1번 (주문마다 보내면 ORDERS번 이상)
+        assertTrue("대량 주문은 주문 요약(order_summary)까지 묶어서 보내야 한다. " + batchRoundTrips, batchRoundTrips < ORDERS / 5);
+        assertEquals("주문 요약이 모두 반영되어야 한다.", 0, orderSummaryProjector.countDrift());
+    }
+
+    @Test
+    public void 대량주문_재고부족시_전체롤백() throws Exception {
+        // given
+        Long[] ids = createMemberAndBook(5);
+        long before = countOrders();
+
+        // when
+        try {
+            orderService.orderAll(Collections.nCopies(6, new OrderCommand(ids[0], ids[1], 1)));
+            fail("재고 수량 부족 예외가 발생해야 한다.");
+        } catch (NotEnoughStockException e) {
+            // then
+            assertEquals(before, countOrders());
+            assertEquals(5, itemService.findOne(ids[1]).getStockQuantity());
+        }
+    }
+
+    private long countOrders() {
+        return transactionTemplate.execute(status -> em.createQuery("SELECT COUNT(o) FROM Order o", Long.class).getSingleResult());
+    }
+
+    private Long[] createMemberAndBook(int stockQuantity) {
+        return transactionTemplate.execute(status -> {
+            Member member = new Member();
+            member.setName("회원1");
+            member.setAddress(new Address("서울", "강가", "123-123"));
+            em.persist(member);
+
+            Book book = new Book();
+            book.setName("시골 JPA");
+            book.setPrice(10000);
+            book.setStockQuantity(stockQuantity);
+            em.persist(book);
+
+            return new Long[]{member.getId(), book.getId()};
+        });
+    }
+}
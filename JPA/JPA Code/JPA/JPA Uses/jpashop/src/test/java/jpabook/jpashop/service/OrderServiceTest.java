@@ -37,6 +37,8 @@ public class OrderServiceTest {
         // when
         int orderCount = 2;
         Long orderId = orderService.order(member.getId(), item.getId(), orderCount);
+        em.flush();
+        em.clear(); // 재고는 조건부 UPDATE(ATOMIC)로 차감하므로 영속성 컨텍스트의 상품에는 반영되지 않음
 
         // then
         Order getOrder = orderRepository.findOne(orderId);
@@ -44,7 +46,7 @@ public class OrderServiceTest {
         Assert.assertEquals("상품 주문시 상태는 ORDER", OrderStatus.ORDER, getOrder.getStatus());
         Assert.assertEquals("주문한 상품 종류 수가 정확해야 한다.", 1, getOrder.getOrderItems().size());
         Assert.assertEquals("주문 가격은 가격 * 수량이다.", 10000 * orderCount, getOrder.getTotalPrice());
-        Assert.assertEquals("주문 수량만큼 재고가 줄어야 한다.", 8, item.getStockQuantity());
+        Assert.assertEquals("주문 수량만큼 재고가 줄어야 한다.", 8, em.find(Item.class, item.getId()).getStockQuantity());
     }
 
     @Test(expected = NotEnoughStockException.class)
@@ -70,6 +72,8 @@ public class OrderServiceTest {
 
         int orderCount = 2;
         Long orderId = orderService.order(member.getId(), item.getId(), orderCount);
+        em.flush();
+        em.clear(); // 주문, 취소는 각각 다른 트랜잭션 (재고를 DB에서 다시 읽음)
 
         // when
         orderService.cancelOrder(orderId);
@@ -78,7 +82,7 @@ public class OrderServiceTest {
         Order getOrder = orderRepository.findOne(orderId);
 
         Assert.assertEquals("주문 취소 시 상태는 CANCEL이다.", OrderStatus.CANCEL, getOrder.getStatus());
-        Assert.assertEquals("주문이 취소된 상품은 그만큼 재고가 증가해야 한다.", 10, item.getStockQuantity());
+        Assert.assertEquals("주문이 취소된 상품은 그만큼 재고가 증가해야 한다.", 10, em.find(Item.class, item.getId()).getStockQuantity());
     }
 
 
@@ -0,0 +1,101 @@
+package jpabook.jpashop.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.monitor.QueryCountScope;
+import jpabook.jpashop.monitor.QueryCounter;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.*;
+
+/**
+ * 2차 캐시 (Item, Member)
+ *  - 상품을 수정(커밋)하므로 테스트 후 스프링 컨텍스트(메모리 DB, CacheManager)를 버림
+ *  - InitDb : 상품 1 (JPA BOOK1), 상품 3 (SPRING BOOK1), 상품 4 (SPRING BOOK2)
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@DirtiesContext
+public class SecondLevelCacheTest {
+
+    static final Long ITEM_ID = 3L;
+    static final Long UPDATE_ITEM_ID = 4L;
+    static final Long ORDER_ITEM_ID = 1L;
+    static final Long MEMBER_ID = 1L;
+
+    @Autowired ItemService itemService;
+    @Autowired MemberService memberService;
+    @Autowired OrderService orderService;
+    @Autowired QueryCounter queryCounter;
+    @Autowired MeterRegistry meterRegistry;
+
+    @Test
+    public void 캐시_조회() throws Exception {
+        // given : 첫 조회 시 캐시에 저장
+        itemService.findOne(ITEM_ID);
+        memberService.findOne(MEMBER_ID);
+        double hits = cacheGets("item", "hit");
+
+        // when : 다른 트랜잭션(영속성 컨텍스트)에서 다시 조회
+        try (QueryCountScope scope = queryCounter.start()) {
+            Item item = itemService.findOne(ITEM_ID);
+            memberService.findOne(MEMBER_ID);
+
+            // then
+            assertEquals("2차 캐시에서 조회하므로 쿼리가 없어야 한다.", 0, scope.getCount());
+            assertEquals("SPRING BOOK1", item.getName());
+        }
+        assertEquals(hits + 1, cacheGets("item", "hit"), 0);
+    }
+
+    @Test
+    public void 상품수정_후_캐시_갱신() throws Exception {
+        // given
+        Item before = itemService.findOne(UPDATE_ITEM_ID);
+
+        // when
+        itemService.updateItem(UPDATE_ITEM_ID, "SPRING BOOK2 개정판", before.getPrice(), before.getStockQuantity());
+
+        // then
+        Item after = itemService.findOne(UPDATE_ITEM_ID);
+        assertEquals("수정한 값이 조회되어야 한다.", "SPRING BOOK2 개정판", after.getName());
+        assertEquals(before.getVersion() + 1, after.getVersion().longValue());
+    }
+
+    @Test
+    public void 주문_후_다른_상품은_캐시_유지() throws Exception {
+        // given : 캐시에 저장
+        itemService.findOne(ITEM_ID);
+        int stock = itemService.findOne(ORDER_ITEM_ID).getStockQuantity();
+
+        // when : 조건부 UPDATE로 재고 차감 (jpashop.order.stock-update=ATOMIC)
+        orderService.order(MEMBER_ID, ORDER_ITEM_ID, 1);
+        orderService.order(MEMBER_ID, ORDER_ITEM_ID, 1);
+
+        // then : 다른 상품은 캐시에서 조회
+        double hits = cacheGets("item", "hit");
+        try (QueryCountScope scope = queryCounter.start()) {
+            assertEquals("SPRING BOOK1", itemService.findOne(ITEM_ID).getName());
+            assertEquals("주문하지 않은 상품은 2차 캐시에서 조회해야 한다.", 0, scope.getCount());
+        }
+        assertEquals(hits + 1, cacheGets("item", "hit"), 0);
+
+        // 주문한 상품만 캐시에서 제거 -> DB에서 새 재고
+        try (QueryCountScope scope = queryCounter.start()) {
+            assertEquals(stock - 2, itemService.findOne(ORDER_ITEM_ID).getStockQuantity());
+            assertEquals(1, scope.getCount());
+        }
+    }
+
+    private double cacheGets(String region, String result) {
+        FunctionCounter counter = meterRegistry.find("cache.gets").tag("cache", region).tag("result", result).functionCounter();
+        assertNotNull("2차 캐시 메트릭이 등록되어야 한다.", counter);
+        return counter.count();
+    }
+}
@@ -0,0 +1,157 @@
+package jpabook.jpashop.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * InitDb : 상품 1 (JPA BOOK1) 재고 100개 중 1개 주문 -> 재고 99개
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "jpashop.stock.buffer.hot-items=1",
+        "jpashop.stock.buffer.stripes=4",
+        "jpashop.stock.buffer.flush-interval-ms=3600000", // 테스트에서 직접 반영
+        "jpashop.stock.buffer.owner=" + StockReservationBufferTest.OWNER})
+public class StockReservationBufferTest {
+
+    static final Long ITEM_ID = 1L;
+    static final Long MEMBER_ID = 1L;
+    static final String OWNER = "test-node";
+
+    @Autowired StockReservationBuffer stockReservationBuffer;
+    @Autowired OrderFacade orderFacade;
+    @Autowired ItemService itemService;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    public void 인기상품_동시주문_후_반영() throws Exception {
+        // given
+        assertEquals(99, stockReservationBuffer.available(ITEM_ID));
+
+        AtomicInteger success = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        List<Long> orderIds = new ArrayList<>();
+
+        // when : 8개 스레드에서 1개씩 150번 주문
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    Long orderId = orderFacade.order(MEMBER_ID, ITEM_ID, 1);
+                    synchronized (orderIds) {
+                        orderIds.add(orderId);
+                    }
+                    success.incrementAndGet();
+                } catch (NotEnoughStockException e) {
+                    soldOut.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        assertEquals("초과 판매가 없어야 한다.", 99, success.get());
+        assertEquals(51, soldOut.get());
+        assertEquals(0, stockReservationBuffer.available(ITEM_ID));
+        assertEquals("반영 전에는 DB 재고가 그대로여야 한다.", 99, itemService.findOne(ITEM_ID).getStockQuantity());
+
+        stockReservationBuffer.flush();
+        assertEquals(0, itemService.findOne(ITEM_ID).getStockQuantity());
+
+        // 주문 취소 : DB와 버퍼 모두 재고 반환
+        orderFacade.cancelOrder(orderIds.get(0));
+        assertEquals(1, itemService.findOne(ITEM_ID).getStockQuantity());
+        assertEquals(1, stockReservationBuffer.available(ITEM_ID));
+
+        // 상품 수정 : 재고를 직접 변경하면 버퍼에도 반영
+        itemService.updateItem(ITEM_ID, "JPA BOOK1", 10000, 10);
+        assertEquals(10, stockReservationBuffer.available(ITEM_ID));
+    }
+
+    @Test
+    public void 상품수정_중에는_반영하지_않음() throws Exception {
+        // given : DB 재고 50, 1개 예약 (미반영)
+        itemService.updateItem(ITEM_ID, "JPA BOOK1", 10000, 50);
+        orderFacade.order(MEMBER_ID, ITEM_ID, 1);
+        assertEquals(49, stockReservationBuffer.available(ITEM_ID));
+
+        // when : 상품 수정 트랜잭션 도중에 다른 스레드에서 반영
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.updateItem(ITEM_ID, "JPA BOOK1", 10000, 30);
+
+            try {
+                executor.submit(stockReservationBuffer::flush).get();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        executor.shutdown();
+
+        // then : 수정은 충돌 없이 커밋, 예약 수량은 다음 반영 때 반영
+        assertEquals(30, itemService.findOne(ITEM_ID).getStockQuantity());
+        assertEquals(29, stockReservationBuffer.available(ITEM_ID));
+
+        stockReservationBuffer.flush();
+        assertEquals(29, itemService.findOne(ITEM_ID).getStockQuantity());
+
+        itemService.updateItem(ITEM_ID, "JPA BOOK1", 10000, 99); // 원래 재고로 (InitDb)
+    }
+
+    @Test
+    public void 재시작_시_미반영_예약_차감() throws Exception {
+        // given : 커밋된 예약 3개 (DB 미반영, 원장에만 있음)
+        for (int i = 0; i < 3; i++) {
+            orderFacade.order(MEMBER_ID, ITEM_ID, 1);
+        }
+        assertEquals(99, itemService.findOne(ITEM_ID).getStockQuantity());
+
+        // when : 반영 전에 프로세스가 죽고 같은 owner로 재시작
+        StockReservationBuffer restarted = newBuffer(OWNER);
+        restarted.reconcileOnStartup();
+
+        // then : DB 재고 - 미반영 원장
+        assertEquals(96, restarted.available(ITEM_ID));
+        assertEquals(stockReservationBuffer.available(ITEM_ID), restarted.available(ITEM_ID));
+
+        // 다른 인스턴스는 시작 불가 (소유권이 만료되지 않음)
+        try {
+            newBuffer("other-node").reconcileOnStartup();
+            fail("다른 인스턴스는 버퍼를 사용할 수 없어야 한다.");
+        } catch (IllegalStateException e) {
+            // 정상
+        }
+
+        stockReservationBuffer.flush();
+        assertEquals(96, itemService.findOne(ITEM_ID).getStockQuantity());
+        assertEquals(0L, (long) jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_reservation", Long.class));
+
+        itemService.updateItem(ITEM_ID, "JPA BOOK1", 10000, 99); // 원래 재고로 (InitDb)
+    }
+
+    private StockReservationBuffer newBuffer(String owner) {
+        return new StockReservationBuffer(jdbcTemplate, emf, transactionTemplate, List.of(ITEM_ID), 4, owner, 30000);
+    }
+}
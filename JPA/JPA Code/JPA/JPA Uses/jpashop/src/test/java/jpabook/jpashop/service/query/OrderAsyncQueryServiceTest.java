@@ -0,0 +1,110 @@
+package jpabook.jpashop.service.query;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jpabook.jpashop.service.OrderCommand;
+import jpabook.jpashop.service.OrderService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * V5 (순서대로 1 + 1 Query) vs V5.1 (3개 쿼리 동시 실행, PAGE건씩 Keyset 페이징) 결과 비교
+ *  - 주문 5,000건 (주문상품 1개씩)을 커밋하므로 별도의 스프링 컨텍스트(= 별도의 메모리 DB)에서 실행
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "jpashop.query.async.threads=3") // 쿼리 3개 동시 실행
+public class OrderAsyncQueryServiceTest {
+
+    static final int ORDERS = 5_000;
+    static final int PAGE = 1_000;
+
+    @Autowired EntityManager em;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired OrderService orderService;
+    @Autowired OrderQueryRepository orderQueryRepository;
+    @Autowired OrderAsyncQueryService orderAsyncQueryService;
+
+    @Test
+    public void 동시_조회() throws Exception {
+        // given
+        createOrders();
+
+        // when
+        List<OrderQueryDto> sequential = findSequential();
+        List<OrderQueryDto> async = findAsyncPages();
+
+        // then
+        assertEquals(sequential.size(), async.size());
+
+        sequential.sort(Comparator.comparing(OrderQueryDto::getOrderId));
+        for (int i = 0; i < sequential.size(); i++) {
+            OrderQueryDto expected = sequential.get(i);
+            OrderQueryDto actual = async.get(i);
+
+            assertEquals(expected.getOrderId(), actual.getOrderId());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getAddress().getCity(), actual.getAddress().getCity());
+            assertEquals("주문상품이 같아야 한다.", expected.getOrderItems().size(), actual.getOrderItems().size());
+        }
+    }
+
+    /**
+     * 마지막 주문 id 이후부터 PAGE건씩 (세 쿼리 모두 같은 범위만 조회)
+     */
+    private List<OrderQueryDto> findAsyncPages() throws Exception {
+        List<OrderQueryDto> result = new ArrayList<>();
+        Long lastOrderId = null;
+
+        while (true) {
+            List<OrderQueryDto> page = orderAsyncQueryService.findAllByDto_async(lastOrderId, PAGE).get();
+            if(page.isEmpty()) {
+                return result;
+            }
+
+            assertTrue("한 페이지는 PAGE건 이하여야 한다.", page.size() <= PAGE);
+            result.addAll(page);
+            lastOrderId = page.get(page.size() - 1).getOrderId();
+        }
+    }
+
+    private List<OrderQueryDto> findSequential() {
+        return transactionTemplate.execute(status -> orderQueryRepository.findAllByDto_optimization());
+    }
+
+    private void createOrders() {
+        Long[] ids = transactionTemplate.execute(status -> {
+            Member member = new Member();
+            member.setName("회원1");
+            member.setAddress(new Address("서울", "강가", "123-123"));
+            em.persist(member);
+
+            Book book = new Book();
+            book.setName("시골 JPA");
+            book.setPrice(10000);
+            book.setStockQuantity(ORDERS);
+            em.persist(book);
+
+            return new Long[]{member.getId(), book.getId()};
+        });
+
+        List<OrderCommand> commands = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            commands.add(new OrderCommand(ids[0], ids[1], 1));
+        }
+        orderService.orderAll(commands);
+    }
+}
@@ -0,0 +1,114 @@
+package study.querydsl.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 검색 페이지 응답 시간 : 카운트 캐시(MemberCountCache) 사용 vs 미사용
+ * - simple : /v2/members (searchPageSimple)
+ * - complex : /v3/members (searchPageComplex)
+ * - countCache=false : ttl 0 (페이지마다 COUNT 쿼리 실행)
+ *
+ * 중간 페이지만 조회 (첫 페이지, 마지막 페이지는 캐시와 상관없이 COUNT 쿼리를 생략할 수 있음)
+ * 검색 조건은 팀 이름 10가지 중 하나 (캐시 키 10개)
+ *
+ * 실행 : gradle jmh (결과는 build/results/jmh/results.json)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberPageCountCacheBenchmark {
+
+    private static final int MEMBERS = 10_000;
+    private static final int TEAMS = 10;
+    private static final int PAGE_SIZE = 20;
+    private static final int MIDDLE_PAGES = MEMBERS / TEAMS / PAGE_SIZE - 2; // 팀당 페이지 중 첫 페이지, 마지막 페이지 제외
+
+    @Param({"true", "false"})
+    private boolean countCache;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private MemberRepository memberRepository;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 💡 properties(...)는 application.properties(tcp DB, local 프로필)보다 우선순위가 낮으므로 명령행 인자로 전달
+        context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:jmh-page-" + countCache + ";DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.profiles.active=bench", // InitMember(local) 제외
+                        "--querydsl.count-cache.ttl-ms=" + (countCache ? 60000 : 0),
+                        "--decorator.datasource.p6spy.enable-logging=false",
+                        "--spring.jpa.properties.hibernate.use_sql_comments=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=OFF",
+                        "--logging.level.org.hibernate.orm.jdbc.bind=OFF",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=OFF",
+                        "--logging.level.org.hibernate.resource.transaction=OFF");
+
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        memberRepository = context.getBean(MemberRepository.class);
+        EntityManager em = context.getBean(EntityManager.class);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Team[] teams = new Team[TEAMS];
+            for (int i = 0; i < TEAMS; i++) {
+                teams[i] = new Team("team" + i);
+                em.persist(teams[i]);
+            }
+
+            for (int i = 0; i < MEMBERS; i++) {
+                em.persist(new Member("member" + i, i % 100, teams[i % TEAMS]));
+            }
+        });
+
+        transactionTemplate.setReadOnly(true); // 읽기, 쓰기 트랜잭션에서는 카운트 캐시를 사용하지 않음
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private MemberSearchCondition nextCondition() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("team" + (sequence % TEAMS));
+        return condition;
+    }
+
+    private PageRequest nextPage() {
+        return PageRequest.of(1 + (sequence++ / TEAMS) % MIDDLE_PAGES, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> simple() {
+        MemberSearchCondition condition = nextCondition();
+        PageRequest page = nextPage();
+        return transactionTemplate.execute(status -> memberRepository.searchPageSimple(condition, page));
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> complex() {
+        MemberSearchCondition condition = nextCondition();
+        PageRequest page = nextPage();
+        return transactionTemplate.execute(status -> memberRepository.searchPageComplex(condition, page));
+    }
+}
@@ -0,0 +1,121 @@
+package study.querydsl.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberJpaRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동적 검색 조건 조립 방식 비교 (MemberJpaRepository)
+ * - builder : BooleanBuilder (searchByBuilder)
+ * - whereParams : WHERE 파라미터 BooleanExpression (search)
+ * - cachedShape : 조건 모양별 JPQL 캐시 + 값 바인딩 (searchByShape)
+ *
+ * 조건 값은 호출마다 바꾸고(나이 범위), 결과는 몇 건만 나오도록 해서 조회보다 쿼리 조립 비용이 드러나게 함
+ * 할당량은 gc.alloc.rate.norm (B/op, -prof gc)
+ *
+ * 실행 : gradle jmh (결과는 build/results/jmh/results.json)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MemberSearchStyleBenchmark {
+
+    private static final int MEMBERS = 1000;
+    private static final int TEAMS = 10;
+
+    /**
+     * username : 조건 1개, teamAge : 팀 이름 + 나이 범위 (조건 3개)
+     */
+    @Param({"username", "teamAge"})
+    private String shape;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private MemberJpaRepository memberJpaRepository;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 💡 명령행 인자로 전달해야 application.properties(tcp DB, local 프로필, SQL 로그)를 덮어씀
+        context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:jmh-search;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.profiles.active=bench", // InitMember(local) 제외
+                        "--decorator.datasource.p6spy.enable-logging=false",
+                        "--spring.jpa.properties.hibernate.use_sql_comments=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=OFF",
+                        "--logging.level.org.hibernate.orm.jdbc.bind=OFF",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=OFF",
+                        "--logging.level.org.hibernate.resource.transaction=OFF");
+
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        EntityManager em = context.getBean(EntityManager.class);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Team[] teams = new Team[TEAMS];
+            for (int i = 0; i < TEAMS; i++) {
+                teams[i] = new Team("team" + i);
+                em.persist(teams[i]);
+            }
+
+            for (int i = 0; i < MEMBERS; i++) {
+                em.persist(new Member("member" + i, i % 100, teams[i % TEAMS]));
+            }
+        });
+
+        transactionTemplate.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private MemberSearchCondition nextCondition() {
+        int n = sequence++ & 0xFF;
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        if(shape.equals("username")) {
+            condition.setUsername("member" + (n % MEMBERS));
+        } else {
+            condition.setTeamName("team" + (n % TEAMS));
+            condition.setAgeGoe(n % 90);
+            condition.setAgeLoe(n % 90 + 10);
+        }
+        return condition;
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> builder() {
+        MemberSearchCondition condition = nextCondition();
+        return transactionTemplate.execute(status -> memberJpaRepository.searchByBuilder(condition));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> whereParams() {
+        MemberSearchCondition condition = nextCondition();
+        return transactionTemplate.execute(status -> memberJpaRepository.search(condition));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> cachedShape() {
+        MemberSearchCondition condition = nextCondition();
+        return transactionTemplate.execute(status -> memberJpaRepository.searchByShape(condition));
+    }
+}
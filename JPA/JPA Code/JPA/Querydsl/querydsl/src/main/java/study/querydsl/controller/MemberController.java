@@ -3,7 +3,9 @@ package study.querydsl.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
@@ -15,6 +17,9 @@ import java.util.List;
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
+    static final int DEFAULT_SLICE_SIZE = 20;
+    static final int MAX_SLICE_SIZE = 2000; // Pageable 최대 크기 (spring.data.web.pageable.max-page-size 기본값)와 동일
+
     private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
 
@@ -32,4 +37,16 @@ public class MemberController {
     public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
         return memberRepository.searchPageComplex(condition, pageable);
     }
+
+    /**
+     * 무한 스크롤 : 다음 요청 시 응답의 마지막 memberId를 lastMemberId로 전달 (hasNext = false면 끝)
+     * - size는 Pageable과 같은 기준으로 보정 (1 미만이면 기본값, MAX_SLICE_SIZE 초과면 MAX_SLICE_SIZE)
+     */
+    @GetMapping("/v4/members")
+    public Slice<MemberTeamDto> searchMemberV4(MemberSearchCondition condition,
+                                               @RequestParam(value = "lastMemberId", required = false) Long lastMemberId,
+                                               @RequestParam(value = "size", defaultValue = "" + DEFAULT_SLICE_SIZE) int size) {
+        int sliceSize = size < 1 ? DEFAULT_SLICE_SIZE : Math.min(size, MAX_SLICE_SIZE);
+        return memberRepository.searchSlice(condition, lastMemberId, sliceSize);
+    }
 }
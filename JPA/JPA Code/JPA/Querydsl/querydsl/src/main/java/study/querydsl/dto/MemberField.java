@@ -0,0 +1,13 @@
+package study.querydsl.dto;
+
+/**
+ * 회원 검색 조회 항목 (MemberTeamDto의 필드)
+ * - TEAM_ID는 회원 테이블의 외래 키(team_id)이므로 팀 조인이 필요 없음, TEAM_NAME만 팀 조인 필요
+ */
+public enum MemberField {
+    MEMBER_ID,
+    USERNAME,
+    AGE,
+    TEAM_ID,
+    TEAM_NAME
+}
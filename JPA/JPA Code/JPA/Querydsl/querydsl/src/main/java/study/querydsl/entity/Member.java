@@ -2,8 +2,14 @@ package study.querydsl.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import study.querydsl.repository.MemberCountInvalidator;
 
 @Entity
+@EntityListeners(MemberCountInvalidator.class)
+@Table(indexes = {
+        // 회원 검색 (이름, 나이) 후 팀 id까지 인덱스만 읽고 답할 수 있도록 (Covering Index, PK는 인덱스에 포함)
+        @Index(name = "idx_member_username_age_team", columnList = "username, age, team_id")
+})
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
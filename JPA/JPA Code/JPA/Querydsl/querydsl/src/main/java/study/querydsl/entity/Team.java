@@ -2,11 +2,13 @@ package study.querydsl.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import study.querydsl.repository.MemberCountInvalidator;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(MemberCountInvalidator.class)
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
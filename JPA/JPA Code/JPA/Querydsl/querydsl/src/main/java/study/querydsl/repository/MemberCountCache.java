@@ -0,0 +1,176 @@
+package study.querydsl.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 회원 검색 전체 카운트 캐시
+ * - 페이징 API는 첫 페이지, 마지막 페이지가 아니면 페이지마다 같은 조인으로 COUNT 쿼리를 다시 실행
+ * - 검색 조건이 같으면 전체 카운트도 같으므로, (쿼리 이름, 검색 조건)별로 ttl 동안 보관
+ *
+ * 무효화
+ * - 회원, 팀이 변경되면(MemberCountInvalidator) 전체 제거 (어떤 검색 조건의 카운트가 바뀌었는지 알 수 없음)
+ * - 변경한 트랜잭션 안에서는 캐시를 사용하지 않음 (커밋 전의 카운트를 다른 트랜잭션이 보면 안 됨)
+ * - 읽기 전용이 아닌 트랜잭션 안에서도 캐시를 사용하지 않음 (@PreUpdate는 flush 시점에 호출되므로, 그 전에 변경 감지로 바뀐 회원이 있을 수 있음)
+ * - 트랜잭션이 끝나면(커밋, 롤백) 다시 전체 제거, 그 사이에 계산하던 카운트는 버림 (generation 비교)
+ *
+ * 근사 카운트 (approximate-threshold > 0)
+ * - 검색 조건이 없으면 COUNT 대신 DB 통계의 행 수 추정치 사용 (테이블 전체를 세지 않음)
+ * - 추정치가 approximate-threshold 미만이면 정확한 카운트
+ * - 💡 추정치는 쿼리마다 따로 넘김 : 조건 없는 카운트가 테이블 행 수와 같은 쿼리만 (예 : inner join으로 팀 없는 회원을 빼는 쿼리는 추정치 없음)
+ *
+ * 💡 엔티티 리스너(MemberCountInvalidator)가 의존하므로 EntityManager에 의존하면 안 됨 (EntityManagerFactory 생성 중 순환 참조)
+ *
+ * 💡 벌크 연산(UPDATE, DELETE JPQL)은 엔티티 리스너를 거치지 않으므로 invalidate() 필요 (또는 ttl 이후 반영)
+ */
+@Component
+public class MemberCountCache {
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long approximateThreshold;
+
+    private final Map<CountKey, CachedCount> counts = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public MemberCountCache(@Value("${querydsl.count-cache.ttl-ms:60000}") long ttlMillis,
+                            @Value("${querydsl.count-cache.max-entries:10000}") int maxEntries,
+                            @Value("${querydsl.count-cache.approximate-threshold:0}") long approximateThreshold) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.approximateThreshold = approximateThreshold;
+    }
+
+    /**
+     * 캐시된 카운트가 없으면 count로 계산해서 보관 (근사 카운트 사용 안 함)
+     *
+     * @param query 카운트 쿼리 이름 (조인이 다르면 같은 검색 조건이어도 카운트가 다름)
+     */
+    public long getCount(String query, MemberSearchCondition condition, LongSupplier count) {
+        return getCount(query, condition, count, null);
+    }
+
+    /**
+     * 캐시된 카운트가 없으면 count로 계산해서 보관
+     *
+     * @param query    카운트 쿼리 이름 (조인이 다르면 같은 검색 조건이어도 카운트가 다름)
+     * @param estimate 이 쿼리의 조건 없는 카운트 추정치 (없으면 null)
+     */
+    public long getCount(String query, MemberSearchCondition condition, LongSupplier count, LongSupplier estimate) {
+        CountKey key = CountKey.of(query, condition);
+
+        if(isDirty() || isReadWriteTransaction()) {
+            return count(key, count, estimate);
+        }
+
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(key);
+        if(cached != null && cached.expiresAt > now) {
+            hits.increment();
+            return cached.count;
+        }
+
+        misses.increment();
+        long startGeneration = generation.get();
+        long total = count(key, count, estimate);
+
+        if(counts.size() >= maxEntries) {
+            counts.clear();
+        }
+
+        // 계산하는 동안 회원, 팀이 변경되었으면 보관하지 않음
+        if(generation.get() == startGeneration) {
+            counts.put(key, new CachedCount(total, now + ttlMillis));
+        }
+
+        return total;
+    }
+
+    private long count(CountKey key, LongSupplier count, LongSupplier estimate) {
+        if(estimate != null && approximateThreshold > 0 && key.isUnfiltered()) {
+            long rows = estimate.getAsLong();
+
+            if(rows >= approximateThreshold) {
+                return rows;
+            }
+        }
+
+        return count.getAsLong();
+    }
+
+    /**
+     * 회원, 팀 변경 시 전체 제거
+     * - 트랜잭션 안이면 트랜잭션이 끝날 때까지 이 트랜잭션에서는 캐시를 사용하지 않고, 끝나면 한 번 더 제거
+     */
+    public void invalidate() {
+        clear();
+
+        if(!TransactionSynchronizationManager.isSynchronizationActive() || isDirty()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MemberCountCache.this);
+                clear();
+            }
+        });
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        counts.clear();
+    }
+
+    private boolean isDirty() {
+        return TransactionSynchronizationManager.hasResource(this);
+    }
+
+    private boolean isReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 정규화된 검색 조건 (빈 문자열은 조건 없음과 같음 : usernameEq, teamNameEq와 동일한 기준)
+     */
+    record CountKey(String query, String username, String teamName, Integer ageGoe, Integer ageLoe) {
+
+        static CountKey of(String query, MemberSearchCondition condition) {
+            return new CountKey(query,
+                    StringUtils.hasText(condition.getUsername()) ? condition.getUsername() : null,
+                    StringUtils.hasText(condition.getTeamName()) ? condition.getTeamName() : null,
+                    condition.getAgeGoe(),
+                    condition.getAgeLoe());
+        }
+
+        boolean isUnfiltered() {
+            return username == null && teamName == null && ageGoe == null && ageLoe == null;
+        }
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+    }
+}
@@ -0,0 +1,28 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+import jakarta.persistence.PreUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 회원, 팀 엔티티 리스너 : 변경되면 회원 검색 카운트 캐시 제거
+ * - Hibernate가 스프링 빈으로 생성 (SpringBeanContainer, 생성자 주입)
+ * - PrePersist, PreRemove는 persist(), remove() 호출 시점이므로, flush 전에 같은 트랜잭션에서 카운트를 조회해도 캐시를 사용하지 않음
+ */
+@Component
+public class MemberCountInvalidator {
+
+    private final MemberCountCache memberCountCache;
+
+    public MemberCountInvalidator(MemberCountCache memberCountCache) {
+        this.memberCountCache = memberCountCache;
+    }
+
+    @PrePersist
+    @PreUpdate
+    @PreRemove
+    public void invalidate(Object entity) {
+        memberCountCache.invalidate();
+    }
+}
@@ -3,8 +3,13 @@ package study.querydsl.repository;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
@@ -16,8 +21,11 @@ import study.querydsl.entity.Member;
 import study.querydsl.entity.QMember;
 import study.querydsl.entity.QTeam;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static study.querydsl.entity.QMember.member;
 import static study.querydsl.entity.QTeam.team;
@@ -25,8 +33,16 @@ import static study.querydsl.entity.QTeam.team;
 @Repository
 public class MemberJpaRepository {
 
+    // 검색 조건 모양(shape)별 JPQL 캐시 : 조건 값은 파라미터로 두고, 요청마다 값만 바인딩
+    private static final Param<String> USERNAME = new Param<>(String.class, "username");
+    private static final Param<String> TEAM_NAME = new Param<>(String.class, "teamName");
+    private static final Param<Integer> AGE_GOE = new Param<>(Integer.class, "ageGoe");
+    private static final Param<Integer> AGE_LOE = new Param<>(Integer.class, "ageLoe");
+    private static final QMemberTeamDto MEMBER_TEAM_DTO = new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name);
+
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final Map<Integer, ShapeQuery> shapeQueries = new ConcurrentHashMap<>();
 
     public MemberJpaRepository(EntityManager em) {
         this.em = em;
@@ -125,6 +141,71 @@ public class MemberJpaRepository {
                 .fetch();
     }
 
+    /**
+     * 검색 조건 모양(shape)별 JPQL 캐시 사용
+     * - searchByBuilder, search는 요청마다 BooleanBuilder, BooleanExpression 트리를 만들고 JPQL 문자열로 직렬화
+     * - 어떤 조건이 있는지(shape)만 다르면 JPQL도 같으므로, shape(최대 16가지)마다 한 번만 Querydsl로 만들어서 재사용
+     * - 요청마다 값만 바인딩 -> Hibernate도 같은 JPQL이므로 쿼리 계획 캐시 사용
+     */
+    public List<MemberTeamDto> searchByShape(MemberSearchCondition condition) {
+        ShapeQuery shapeQuery = shapeQueries.computeIfAbsent(shapeOf(condition), MemberJpaRepository::serializeShape);
+        TypedQuery<Object[]> query = em.createQuery(shapeQuery.jpql(), Object[].class);
+
+        shapeQuery.positions().forEach((param, position) -> query.setParameter(position, valueOf(param, condition)));
+
+        return query.getResultList().stream()
+                .map(MEMBER_TEAM_DTO::newInstance)
+                .toList();
+    }
+
+    /**
+     * 값이 있는 조건 : username(1), teamName(2), ageGoe(4), ageLoe(8)
+     */
+    static int shapeOf(MemberSearchCondition condition) {
+        return (StringUtils.hasText(condition.getUsername()) ? 1 : 0)
+                | (StringUtils.hasText(condition.getTeamName()) ? 2 : 0)
+                | (condition.getAgeGoe() != null ? 4 : 0)
+                | (condition.getAgeLoe() != null ? 8 : 0);
+    }
+
+    private static Object valueOf(Param<?> param, MemberSearchCondition condition) {
+        if(param == USERNAME) {
+            return condition.getUsername();
+        }
+        if(param == TEAM_NAME) {
+            return condition.getTeamName();
+        }
+        return param == AGE_GOE ? condition.getAgeGoe() : condition.getAgeLoe();
+    }
+
+    static ShapeQuery serializeShape(int shape) {
+        JPAQuery<MemberTeamDto> query = new JPAQuery<Void>()
+                .select(MEMBER_TEAM_DTO)
+                .from(member)
+                .join(member.team, team)
+                .where(
+                        (shape & 1) != 0 ? member.username.eq(USERNAME) : null,
+                        (shape & 2) != 0 ? team.name.eq(TEAM_NAME) : null,
+                        (shape & 4) != 0 ? member.age.goe(AGE_GOE) : null,
+                        (shape & 8) != 0 ? member.age.loe(AGE_LOE) : null
+                );
+
+        JPQLSerializer serializer = new JPQLSerializer(HQLTemplates.DEFAULT);
+        serializer.serialize(query.getMetadata(), false, null);
+
+        // 파라미터는 나온 순서대로 ?1, ?2 ... 로 직렬화됨 : 파라미터 -> 위치
+        Map<Param<?>, Integer> positions = new HashMap<>();
+        List<Object> constants = serializer.getConstants();
+        for (int i = 0; i < constants.size(); i++) {
+            positions.put((Param<?>) constants.get(i), i + 1);
+        }
+
+        return new ShapeQuery(serializer.toString(), positions);
+    }
+
+    record ShapeQuery(String jpql, Map<Param<?>, Integer> positions) {
+    }
+
     private BooleanExpression usernameEq(String username) {
         return StringUtils.hasText(username) ? member.username.eq(username) : null;
     }
@@ -1,6 +1,7 @@
 package study.querydsl.repository;
 
-import com.querydsl.core.QueryResults;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.impl.JPAQuery;
@@ -8,16 +9,22 @@ import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.repository.support.QuerydslRepositorySupport;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
+import study.querydsl.dto.MemberField;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
 import study.querydsl.entity.Member;
 
 import java.util.List;
+import java.util.Set;
 
 import static study.querydsl.entity.QMember.member;
 import static study.querydsl.entity.QTeam.team;
@@ -25,10 +32,14 @@ import static study.querydsl.entity.QTeam.team;
 // public class MemberRepositoryImpl extends QuerydslRepositorySupport implements MemberRepositoryCustom {
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+    private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final MemberCountCache memberCountCache;
 
-    public MemberRepositoryImpl(EntityManager entityManager) {
+    public MemberRepositoryImpl(EntityManager entityManager, MemberCountCache memberCountCache) {
+        this.em = entityManager;
         this.queryFactory = new JPAQueryFactory(entityManager);
+        this.memberCountCache = memberCountCache;
     }
 
     /*
@@ -83,6 +94,66 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                 .fetch();
     }
 
+    /**
+     * 필요한 항목만 조회
+     * - 요청한 항목(fields)만 SELECT, 조회하지 않은 항목은 null (age는 0)
+     * - 팀 이름을 조회하지도, 팀 이름으로 검색하지도 않으면 팀 조인 생략 (팀 id는 회원 테이블의 외래 키)
+     * - 회원 id, 이름, 나이, 팀 id만 조회하면 인덱스(username, age, team_id)만 읽고 답할 수 있음 (Covering Index)
+     */
+    @Override
+    public List<MemberTeamDto> search(MemberSearchCondition condition, Set<MemberField> fields) {
+        return projectionQuery(condition, fields)
+                .fetch()
+                .stream()
+                .map(tuple -> {
+                    Integer age = tuple.get(member.age);
+
+                    return new MemberTeamDto(
+                            tuple.get(member.id),
+                            tuple.get(member.username),
+                            age != null ? age : 0,
+                            tuple.get(member.team.id),
+                            tuple.get(team.name));
+                })
+                .toList();
+    }
+
+    JPAQuery<Tuple> projectionQuery(MemberSearchCondition condition, Set<MemberField> fields) {
+        if(fields.isEmpty()) {
+            throw new IllegalArgumentException("조회할 항목이 없습니다.");
+        }
+
+        Expression<?>[] select = fields.stream()
+                .sorted()
+                .map(this::toExpression)
+                .toArray(Expression<?>[]::new);
+
+        JPAQuery<Tuple> query = queryFactory
+                .select(select)
+                .from(member);
+
+        if(fields.contains(MemberField.TEAM_NAME) || StringUtils.hasText(condition.getTeamName())) {
+            query.leftJoin(member.team, team);
+        }
+
+        return query.where(
+                usernameEq(condition.getUsername()),
+                teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe())
+        );
+    }
+
+    private Expression<?> toExpression(MemberField field) {
+        return switch (field) {
+            case MEMBER_ID -> member.id;
+            case USERNAME -> member.username;
+            case AGE -> member.age;
+            case TEAM_ID -> member.team.id; // 조인 없이 외래 키 사용
+            case TEAM_NAME -> team.name;
+        };
+    }
+
     /*
     @Override
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
@@ -112,9 +183,14 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
     }
     */
 
+    /**
+     * 단순한 페이징
+     * - fetchResults()는 deprecated, 항상 데이터 조회 + 카운트 쿼리 2번 (카운트는 JPQL을 count 쿼리로 바꾸어 실행)
+     * - 데이터 조회 후 카운트는 필요할 때만 실행하고, 같은 검색 조건이면 캐시된 카운트 사용 (MemberCountCache)
+     */
     @Override
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
-        QueryResults<MemberTeamDto> results = queryFactory
+        List<MemberTeamDto> content = queryFactory
                 .select(
                         new QMemberTeamDto(
                                 member.id,
@@ -134,17 +210,27 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                 )
                 .offset(pageable.getOffset()) // offset
                 .limit(pageable.getPageSize()) // limit
-                .fetchResults();
+                .fetch();
 
-        List<MemberTeamDto> content = results.getResults();
-        long total = results.getTotal();
+        JPAQuery<Long> countQuery = queryFactory.select(member.count())
+                .from(member)
+                .join(member.team, team) // 데이터 조회와 같은 조인 (팀이 없는 회원 제외)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe())
+                );
 
-        return new PageImpl<>(content, pageable, total);
+        // 💡 팀이 없는 회원은 세지 않으므로, 회원 테이블 행 수 추정치를 쓰면 안 됨
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> memberCountCache.getCount("searchPageSimple", condition, countQuery::fetchOne));
     }
 
     /**
      * 복잡한 페이징
      * - 데이터 조회 쿼리와, 전체 카운트 쿼리를 분리
+     * - 카운트는 같은 검색 조건이면 캐시된 카운트 사용 (MemberCountCache)
      */
     @Override
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
@@ -182,7 +268,65 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
 
         // return new PageImpl<>(content, pageable, total);
-        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne); // fetchCount -> fetchOne
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> memberCountCache.getCount("searchPageComplex", condition, countQuery::fetchOne, this::estimateMemberRows)); // fetchCount -> fetchOne
+    }
+
+    /**
+     * 무한 스크롤 (Keyset 페이징)
+     * - offset은 앞의 행을 모두 읽고 버리므로 뒤로 갈수록 느려짐 -> 마지막으로 받은 회원 id 다음부터 조회 (member.id > lastMemberId)
+     * - PK 인덱스로 바로 찾아가므로 몇 번째 스크롤이든 첫 페이지와 같은 비용
+     * - size + 1건을 조회해서 다음 데이터 존재 여부 확인 (카운트 쿼리 없음)
+     */
+    @Override
+    public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Long lastMemberId, int size) {
+        Assert.isTrue(size > 0, "size must be greater than 0");
+
+        List<MemberTeamDto> content = queryFactory
+                .select(
+                        new QMemberTeamDto(
+                                member.id,
+                                member.username,
+                                member.age,
+                                team.id,
+                                team.name
+                        )
+                )
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(
+                        memberIdGt(lastMemberId),
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe())
+                )
+                .orderBy(member.id.asc())
+                .limit(size + 1L) // 다음 페이지 확인용 1건 (int 범위를 넘지 않도록 long으로)
+                .fetch();
+
+        boolean hasNext = content.size() > size;
+        if(hasNext) {
+            content = content.subList(0, size);
+        }
+
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * 회원 테이블 행 수 추정치 (H2 통계, 테이블을 세지 않음)
+     * - searchPageComplex의 조건 없는 카운트 (left join이므로 회원 전체)
+     */
+    long estimateMemberRows() {
+        Object estimate = em.createNativeQuery("SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES "
+                        + "WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = 'MEMBER'")
+                .getSingleResult();
+
+        return ((Number) estimate).longValue();
+    }
+
+    private BooleanExpression memberIdGt(Long lastMemberId) {
+        return lastMemberId != null ? member.id.gt(lastMemberId) : null;
     }
 
     private BooleanExpression usernameEq(String username) {
@@ -0,0 +1,41 @@
+package study.querydsl.repository.support;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keyset 페이징 커서 : 마지막으로 받은 행의 정렬 컬럼 값 (정렬 순서와 같은 순서)
+ * - 다음 페이지 요청 시 그대로 전달하면 이 값 다음부터 조회
+ */
+public final class KeysetCursor {
+
+    private final List<Object> values;
+
+    private KeysetCursor(List<Object> values) {
+        this.values = values;
+    }
+
+    public static KeysetCursor of(Object... values) {
+        return new KeysetCursor(Collections.unmodifiableList(Arrays.asList(values)));
+    }
+
+    public List<Object> getValues() {
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof KeysetCursor other && values.equals(other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return values.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor" + values;
+    }
+}
@@ -0,0 +1,15 @@
+package study.querydsl.repository.support;
+
+import java.util.List;
+
+/**
+ * Keyset 페이징 결과
+ *
+ * @param next 다음 페이지 커서 (마지막 페이지면 null)
+ */
+public record KeysetSlice<T>(List<T> content, KeysetCursor next) {
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
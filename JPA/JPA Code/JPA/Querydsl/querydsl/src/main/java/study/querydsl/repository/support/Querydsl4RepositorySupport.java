@@ -1,8 +1,13 @@
 package study.querydsl.repository.support;
 
 import com.mysema.commons.lang.Assert;
+import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
@@ -95,4 +100,79 @@ public abstract class Querydsl4RepositorySupport {
 
         return PageableExecutionUtils.getPage(content, pageable, countResult::fetchCount);
     }
+
+    /**
+     * Keyset(Seek) 페이징
+     * - offset 대신 이전 페이지 마지막 행의 정렬 값(after) 다음부터 조회 : 정렬 컬럼 인덱스가 있으면 몇 번째 페이지든 O(log n)
+     * - size + 1건을 조회해서 다음 페이지 존재 여부 확인 (카운트 쿼리 없음)
+     * - 정렬 컬럼 값은 null이면 안 되고, 마지막 정렬 컬럼은 유일해야 함 (보통 id)
+     *
+     * @param after    이전 페이지의 next 커서 (첫 페이지면 null)
+     * @param size     페이지 크기 (1 이상)
+     * @param orders   정렬 순서 (ASC, DESC 섞어서 사용 가능)
+     * @param cursorOf 행에서 정렬 컬럼 값을 꺼내서 커서로 (orders와 같은 순서)
+     */
+    protected <T> KeysetSlice<T> applyKeysetPagination(KeysetCursor after, int size, List<OrderSpecifier<?>> orders,
+                                                       Function<JPAQueryFactory, JPAQuery<T>> contentQuery,
+                                                       Function<T, KeysetCursor> cursorOf) {
+        Assert.isTrue(size > 0, "size must be greater than 0");
+
+        JPAQuery<T> query = contentQuery.apply(getQueryFactory());
+
+        if(after != null) {
+            query.where(seekPredicate(orders, after));
+        }
+
+        List<T> content = query
+                .orderBy(orders.toArray(new OrderSpecifier<?>[0]))
+                .limit(size + 1L) // int 범위를 넘지 않도록 long으로
+                .fetch();
+
+        boolean hasNext = content.size() > size;
+        if(hasNext) {
+            content = content.subList(0, size);
+        }
+
+        return new KeysetSlice<>(content, hasNext ? cursorOf.apply(content.get(size - 1)) : null);
+    }
+
+    /**
+     * 정렬 (c1, c2, ..., cn) 기준으로 커서 (v1, v2, ..., vn) 다음 행 조건
+     * - (c1 > v1) OR (c1 = v1 AND c2 > v2) OR ... (DESC면 <)
+     * - JPQL은 (c1, c2) > (v1, v2) 같은 행 값 비교가 없으므로 OR로 풀어서 작성
+     * - 정렬 컬럼이 여러 개면 첫 번째 정렬 컬럼 범위 조건(c1 >= v1)을 AND로 추가 : OR 조건만으로는 인덱스 범위 검색을 못할 수 있음
+     */
+    protected static Predicate seekPredicate(List<OrderSpecifier<?>> orders, KeysetCursor after) {
+        List<Object> values = after.getValues();
+
+        if(values.size() != orders.size()) {
+            throw new IllegalArgumentException("커서 값 개수가 정렬 컬럼 개수와 다릅니다. cursor = " + after + ", orders = " + orders);
+        }
+        if(values.contains(null)) {
+            throw new IllegalArgumentException("커서 값은 null일 수 없습니다. cursor = " + after);
+        }
+
+        BooleanBuilder seek = new BooleanBuilder();
+        for (int i = 0; i < orders.size(); i++) {
+            BooleanBuilder branch = new BooleanBuilder();
+
+            for (int j = 0; j < i; j++) {
+                branch.and(compare(Ops.EQ, orders.get(j), values.get(j)));
+            }
+            branch.and(compare(orders.get(i).isAscending() ? Ops.GT : Ops.LT, orders.get(i), values.get(i)));
+
+            seek.or(branch);
+        }
+
+        if(orders.size() == 1) {
+            return seek;
+        }
+
+        Predicate leading = compare(orders.get(0).isAscending() ? Ops.GOE : Ops.LOE, orders.get(0), values.get(0));
+        return new BooleanBuilder(leading).and(seek);
+    }
+
+    private static Predicate compare(Ops op, OrderSpecifier<?> order, Object value) {
+        return Expressions.predicate(op, order.getTarget(), Expressions.constant(value));
+    }
 }
@@ -0,0 +1,152 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 커밋된 데이터만 캐시하므로 테스트 트랜잭션(롤백) 없이 실행, 끝나면 직접 삭제
+ */
+@SpringBootTest
+class MemberCountCacheTest {
+    @Autowired EntityManager em;
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberCountCache memberCountCache;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    Team teamA;
+
+    @BeforeEach
+    public void before() {
+        transactionTemplate.executeWithoutResult(status -> {
+            teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+
+            em.persist(new Member("member1", 10, teamA));
+            em.persist(new Member("member2", 20, teamA));
+            em.persist(new Member("member3", 30, teamB));
+            em.persist(new Member("member4", 40, teamB));
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("DELETE FROM Member m").executeUpdate();
+            em.createQuery("DELETE FROM Team t").executeUpdate();
+        });
+        memberCountCache.invalidate();
+    }
+
+    @Test
+    public void 같은_검색_조건은_카운트_재사용() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        MemberSearchCondition emptyUsername = new MemberSearchCondition();
+        emptyUsername.setUsername(""); // 조건 없음과 같음
+
+        long misses = memberCountCache.getMissCount();
+        long hits = memberCountCache.getHitCount();
+
+        // 중간 페이지 : 카운트 필요
+        Page<MemberTeamDto> first = memberRepository.searchPageComplex(condition, PageRequest.of(1, 1));
+        Page<MemberTeamDto> second = memberRepository.searchPageComplex(emptyUsername, PageRequest.of(2, 1));
+
+        assertThat(first.getTotalElements()).isEqualTo(4);
+        assertThat(second.getTotalElements()).isEqualTo(4);
+        assertThat(memberCountCache.getMissCount() - misses).isEqualTo(1);
+        assertThat(memberCountCache.getHitCount() - hits).isEqualTo(1);
+
+        // 조인이 다른 쿼리는 따로 카운트
+        assertThat(memberRepository.searchPageSimple(condition, PageRequest.of(1, 1)).getTotalElements()).isEqualTo(4);
+        assertThat(memberCountCache.getMissCount() - misses).isEqualTo(2);
+    }
+
+    @Test
+    public void 회원_변경_시_카운트_무효화() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        assertThat(memberRepository.searchPageComplex(condition, PageRequest.of(0, 1)).getTotalElements()).isEqualTo(2);
+
+        // 변경한 트랜잭션 안 : 캐시를 사용하지 않음 (커밋 전 카운트)
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(new Member("member5", 50, em.find(Team.class, teamA.getId())));
+
+            long hits = memberCountCache.getHitCount();
+            assertThat(memberRepository.searchPageComplex(condition, PageRequest.of(0, 1)).getTotalElements()).isEqualTo(3);
+            assertThat(memberCountCache.getHitCount()).isEqualTo(hits);
+
+            status.setRollbackOnly();
+        });
+
+        // 롤백 후 : 다른 트랜잭션에 커밋 전 카운트가 보이면 안 됨
+        assertThat(memberRepository.searchPageComplex(condition, PageRequest.of(0, 1)).getTotalElements()).isEqualTo(2);
+
+        // 커밋 후 : 새 카운트
+        transactionTemplate.executeWithoutResult(status ->
+                em.persist(new Member("member5", 50, em.find(Team.class, teamA.getId()))));
+        assertThat(memberRepository.searchPageComplex(condition, PageRequest.of(0, 1)).getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    public void 읽기_전용_트랜잭션에서만_캐시_사용() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        memberRepository.searchPageComplex(condition, PageRequest.of(1, 1)); // 캐시
+
+        // 읽기, 쓰기 트랜잭션 : flush 전 변경(@PreUpdate 전)이 있을 수 있으므로 캐시를 사용하지 않음
+        long hits = memberCountCache.getHitCount();
+        transactionTemplate.executeWithoutResult(status ->
+                assertThat(memberRepository.searchPageComplex(condition, PageRequest.of(1, 1)).getTotalElements()).isEqualTo(4));
+        assertThat(memberCountCache.getHitCount()).isEqualTo(hits);
+
+        // 읽기 전용 트랜잭션
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status ->
+                assertThat(memberRepository.searchPageComplex(condition, PageRequest.of(1, 1)).getTotalElements()).isEqualTo(4));
+        assertThat(memberCountCache.getHitCount()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    public void 검색_조건이_없으면_근사_카운트() {
+        MemberCountCache approximate = new MemberCountCache(60000, 100, 1000);
+        MemberSearchCondition filtered = new MemberSearchCondition();
+        filtered.setAgeGoe(20);
+
+        assertThat(approximate.getCount("test", new MemberSearchCondition(), () -> 999_999, () -> 1_000_000)).isEqualTo(1_000_000);
+        assertThat(approximate.getCount("test", filtered, () -> 3, () -> 1_000_000)).isEqualTo(3);
+
+        // 추정치가 threshold 미만이면 정확한 카운트
+        approximate.invalidate();
+        assertThat(approximate.getCount("test", new MemberSearchCondition(), () -> 4, () -> 5)).isEqualTo(4);
+    }
+
+    @Test
+    public void 근사_카운트는_테이블_전체를_세는_쿼리만() {
+        // given : 팀이 없는 회원 (searchPageComplex는 포함, searchPageSimple은 제외)
+        transactionTemplate.executeWithoutResult(status -> em.persist(new Member("member5", 50, null)));
+        MemberRepositoryImpl approximate = new MemberRepositoryImpl(em, new MemberCountCache(60000, 100, 1));
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        // then : 실제 스키마의 INFORMATION_SCHEMA 통계 (팀이 없는 회원 포함)
+        assertThat(approximate.estimateMemberRows()).isEqualTo(5);
+
+        // 중간 페이지 (카운트 필요)
+        assertThat(approximate.searchPageComplex(condition, PageRequest.of(1, 1)).getTotalElements()).isEqualTo(5);
+        assertThat(approximate.searchPageSimple(condition, PageRequest.of(1, 1)).getTotalElements()).isEqualTo(4);
+    }
+}
@@ -102,5 +102,50 @@ class MemberJpaRepositoryTest {
         Assertions.assertThat(result).extracting("username").containsExactly("member4");
     }
 
+    @Test
+    public void searchTest_Shape() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
 
-}
\ No newline at end of file
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(35);
+        condition.setAgeLoe(40);
+        condition.setTeamName("teamB");
+
+        List<MemberTeamDto> result = memberJpaRepository.searchByShape(condition);
+        Assertions.assertThat(result).extracting("username").containsExactly("member4");
+
+        // 같은 모양, 다른 값 : 캐시된 JPQL에 값만 바인딩
+        condition.setAgeGoe(20);
+        condition.setTeamName("teamA");
+        Assertions.assertThat(memberJpaRepository.searchByShape(condition)).extracting("username").containsExactly("member2");
+
+        // 조건 없음, 빈 문자열은 조건 없음과 같음
+        MemberSearchCondition empty = new MemberSearchCondition();
+        empty.setUsername("");
+        Assertions.assertThat(memberJpaRepository.searchByShape(empty))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrderElementsOf(memberJpaRepository.searchByBuilder(new MemberSearchCondition()));
+    }
+
+    @Test
+    public void shapeQuery() {
+        MemberJpaRepository.ShapeQuery all = MemberJpaRepository.serializeShape(15);
+        MemberJpaRepository.ShapeQuery ageOnly = MemberJpaRepository.serializeShape(4 | 8);
+
+        Assertions.assertThat(all.positions()).hasSize(4);
+        Assertions.assertThat(ageOnly.jpql()).doesNotContain("username = ", "team.name = ").contains("?1", "?2");
+        Assertions.assertThat(ageOnly.positions()).containsValues(1, 2);
+    }
+}
@@ -7,15 +7,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberField;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.QMember;
 import study.querydsl.entity.Team;
 
+import java.util.EnumSet;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,6 +29,7 @@ import static org.junit.jupiter.api.Assertions.*;
 class MemberRepositoryTest {
     @Autowired EntityManager em;
     @Autowired MemberRepository memberRepository;
+    @Autowired MemberRepositoryImpl memberRepositoryImpl;
 
     @Test
     public void basicTest() {
@@ -91,6 +96,72 @@ class MemberRepositoryTest {
         Assertions.assertThat(result.getContent()).extracting("username").containsExactly("member1", "member2", "member3");
     }
 
+    @Test
+    public void searchSlice() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+
+        Slice<MemberTeamDto> first = memberRepository.searchSlice(condition, null, 2);
+        Long lastMemberId = first.getContent().get(first.getNumberOfElements() - 1).getMemberId();
+        Slice<MemberTeamDto> second = memberRepository.searchSlice(condition, lastMemberId, 2);
+
+        Assertions.assertThat(first.getContent()).extracting("username").containsExactly("member2", "member3");
+        Assertions.assertThat(first.hasNext()).isTrue();
+        Assertions.assertThat(second.getContent()).extracting("username").containsExactly("member4");
+        Assertions.assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    public void searchSlice_invalidSize() {
+        Assertions.assertThatThrownBy(() -> memberRepository.searchSlice(new MemberSearchCondition(), null, 0))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class); // 리포지토리 예외 변환 (IllegalArgumentException)
+    }
+
+    @Test
+    public void searchProjection() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Member member1 = new Member("member1", 10, teamA);
+        em.persist(member1);
+        em.persist(new Member("member2", 20, teamA));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member1");
+
+        // 팀 id만 조회 : 팀 조인 없음
+        EnumSet<MemberField> narrow = EnumSet.of(MemberField.MEMBER_ID, MemberField.USERNAME, MemberField.TEAM_ID);
+        List<MemberTeamDto> result = memberRepository.search(condition, narrow);
+
+        Assertions.assertThat(memberRepositoryImpl.projectionQuery(condition, narrow).toString()).doesNotContainIgnoringCase("join");
+        Assertions.assertThat(result).extracting("memberId", "username", "teamId", "teamName")
+                .containsExactly(Assertions.tuple(member1.getId(), "member1", teamA.getId(), null));
+
+        // 팀 이름 조회 : 팀 조인
+        EnumSet<MemberField> withTeam = EnumSet.of(MemberField.USERNAME, MemberField.TEAM_NAME);
+
+        Assertions.assertThat(memberRepositoryImpl.projectionQuery(condition, withTeam).toString()).containsIgnoringCase("left join");
+        Assertions.assertThat(memberRepository.search(condition, withTeam)).extracting("teamName").containsExactly("teamA");
+
+        // 인덱스만 읽고 답함
+        Object plan = em.createNativeQuery("EXPLAIN SELECT member_id, username, age, team_id FROM member WHERE username = 'member1'")
+                .getSingleResult();
+        Assertions.assertThat(plan.toString()).containsIgnoringCase("idx_member_username_age_team");
+    }
+
     @Test
     public void querydslPredicateExecutorTest() {
         Team teamA = new Team("teamA");
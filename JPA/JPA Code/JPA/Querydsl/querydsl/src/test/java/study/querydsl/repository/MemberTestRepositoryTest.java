@@ -0,0 +1,65 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.support.KeysetCursor;
+import study.querydsl.repository.support.KeysetSlice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class MemberTestRepositoryTest {
+    @Autowired EntityManager em;
+    @Autowired MemberTestRepository memberTestRepository;
+
+    @Test
+    public void keysetPagination() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        // 같은 나이가 페이지 경계에 걸치도록 (age desc, id asc)
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 20, teamA));
+        em.persist(new Member("member4", 20, teamA));
+        em.persist(new Member("member5", 30, teamA));
+
+        List<String> usernames = new ArrayList<>();
+        KeysetCursor after = null;
+        int pages = 0;
+
+        do {
+            KeysetSlice<Member> slice = memberTestRepository.searchKeyset(new MemberSearchCondition(), after, 2);
+            slice.content().forEach(m -> usernames.add(m.getUsername()));
+            after = slice.next();
+            pages++;
+        } while(after != null);
+
+        assertThat(usernames).containsExactly("member5", "member2", "member3", "member4", "member1");
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    public void keysetPagination_잘못된_커서() {
+        assertThatThrownBy(() -> memberTestRepository.searchKeyset(new MemberSearchCondition(), KeysetCursor.of(10), 2))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class); // @Repository 예외 변환 (IllegalArgumentException)
+    }
+
+    @Test
+    public void keysetPagination_잘못된_크기() {
+        assertThatThrownBy(() -> memberTestRepository.searchKeyset(new MemberSearchCondition(), null, 0))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);
+    }
+}